@@ -0,0 +1,65 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the reflective and the compiled flattening of an {@link AddUserForm}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompiledFormBenchmark {
+
+    private final Configuration compiledConfig = Configuration.builder()
+            .compileForms(true)
+            .build();
+
+    private AddUserForm flatForm;
+    private AddUserForm completeForm;
+
+    @Setup
+    public void setUp() {
+        this.flatForm = AddUserForm.builder()
+                .firstName("John")
+                .name("Doe")
+                .gender(AddUserForm.Gender.MALE)
+                .currentAddress(TestFixtures.anAddress())
+                .build();
+        this.completeForm = TestFixtures.aCompleteAddUserForm();
+    }
+
+    @Benchmark
+    public Map<String, String> reflectiveFlatForm() {
+        return FormFlattener.collectFields(this.flatForm, Configuration.DEFAULT);
+    }
+
+    @Benchmark
+    public Map<String, String> compiledFlatForm() {
+        return FormFlattener.collectFields(this.flatForm, this.compiledConfig);
+    }
+
+    @Benchmark
+    public Map<String, String> reflectiveCompleteForm() {
+        return FormFlattener.collectFields(this.completeForm, Configuration.DEFAULT);
+    }
+
+    @Benchmark
+    public Map<String, String> compiledCompleteForm() {
+        return FormFlattener.collectFields(this.completeForm, this.compiledConfig);
+    }
+}
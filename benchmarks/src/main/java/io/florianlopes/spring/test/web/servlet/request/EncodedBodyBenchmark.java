@@ -0,0 +1,62 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares encoding the parameters of a form into an URL encoded body with {@link URLEncoder} and a string builder,
+ * as {@code FormHttpMessageConverter} does, and with the lookup tables and cached names of {@link FormUrlEncoder}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EncodedBodyBenchmark {
+
+    private final FormUrlEncoder urlEncoder = FormUrlEncoder.forBody();
+
+    private Map<String, String> parameters;
+
+    @Setup
+    public void setUp() {
+        final AddUserForm form = TestFixtures.aCompleteAddUserForm();
+        form.setName("Doe & Sons, Zürich");
+        this.parameters = FormFlattener.collectFields(form, Configuration.DEFAULT);
+    }
+
+    @Benchmark
+    public byte[] urlEncoder() {
+        final StringBuilder body = new StringBuilder();
+        this.parameters.forEach((name, value) -> {
+            if (body.length() > 0) {
+                body.append('&');
+            }
+            body.append(URLEncoder.encode(name, StandardCharsets.UTF_8))
+                    .append('=')
+                    .append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+        });
+        return body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] formUrlEncoder() {
+        final FormUrlEncoder.Body body = this.urlEncoder.newBody();
+        this.parameters.forEach(body::accept);
+        return body.toByteArray();
+    }
+}
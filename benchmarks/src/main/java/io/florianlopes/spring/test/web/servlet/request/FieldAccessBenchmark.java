@@ -0,0 +1,78 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading form field values through {@link ReflectionTestUtils#getField(Object, String)}
+ * with reading them through a {@link FieldAccessor}, and reading properties through a bean wrapper
+ * with reading them through a getter {@link FieldAccessor}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FieldAccessBenchmark {
+
+    private AddUserForm.Address address;
+    private FieldAccessor cityAccessor;
+    private FieldAccessor streetNumberAccessor;
+    private FieldAccessor cityGetterAccessor;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        this.address = TestFixtures.anAddress();
+        this.cityAccessor = FieldAccessor.of(AddUserForm.Address.class.getDeclaredField("city"));
+        this.streetNumberAccessor = FieldAccessor.of(AddUserForm.Address.class.getDeclaredField("streetNumber"));
+        this.cityGetterAccessor = FieldAccessor.of("city", AddUserForm.Address.class.getMethod("getCity"));
+    }
+
+    @Benchmark
+    public Object reflectionTestUtilsObjectField() {
+        return ReflectionTestUtils.getField(this.address, "city");
+    }
+
+    @Benchmark
+    public Object reflectionTestUtilsPrimitiveField() {
+        return ReflectionTestUtils.getField(this.address, "streetNumber");
+    }
+
+    @Benchmark
+    public Object fieldAccessorObjectField() {
+        return this.cityAccessor.get(this.address);
+    }
+
+    @Benchmark
+    public Object fieldAccessorBoxedPrimitiveField() {
+        return this.streetNumberAccessor.get(this.address);
+    }
+
+    @Benchmark
+    public int fieldAccessorPrimitiveField() {
+        return this.streetNumberAccessor.getInt(this.address);
+    }
+
+    @Benchmark
+    public Object beanWrapperProperty() {
+        return PropertyAccessorFactory.forBeanPropertyAccess(this.address).getPropertyValue("city");
+    }
+
+    @Benchmark
+    public Object getterAccessorProperty() {
+        return this.cityGetterAccessor.get(this.address);
+    }
+}
@@ -0,0 +1,49 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead of counting and timing flattenings for a listener, compared to flattening without listener.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlatteningMetricsBenchmark {
+
+    private Configuration recordingConfig;
+    private AddUserForm form;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        this.recordingConfig = Configuration.builder()
+                .withFlatteningListener(blackhole::consume)
+                .build();
+        this.form = TestFixtures.aCompleteAddUserForm();
+    }
+
+    @Benchmark
+    public Map<String, String> withoutListener() {
+        return FormFlattener.collectFields(this.form, Configuration.DEFAULT);
+    }
+
+    @Benchmark
+    public Map<String, String> withListener() {
+        return FormFlattener.collectFields(this.form, this.recordingConfig);
+    }
+}
@@ -0,0 +1,60 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares flattening a variant of a valid form entirely with flattening its changes against a {@link FormBaseline}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FormBaselineBenchmark {
+
+    private FormBaseline<AddUserForm> baseline;
+    private AddUserForm variant;
+
+    @Setup
+    public void setUp() {
+        final AddUserForm form = TestFixtures.aCompleteAddUserForm();
+        this.baseline = MockMvcRequestBuilderUtils.baseline(form);
+        this.variant = new AddUserForm(form.getFirstName(), form.getName(), form.getIdentificationNumber(),
+                form.getIdentificationNumberBigInt(), form.getGender(), form.getBirthDate(),
+                form.getCurrentAddress().withCity("Boston"), form.getUsernames(), form.getUsernamesArray(),
+                form.getDiplomas(), form.getFormerAddresses(), form.getMetadatas(), form.getDiplomasMap());
+    }
+
+    @Benchmark
+    public Map<String, String> fullFlattening() {
+        return FormFlattener.collectFields(this.variant, Configuration.DEFAULT);
+    }
+
+    @Benchmark
+    public FormDelta diff() {
+        return this.baseline.diff(this.variant);
+    }
+
+    @Benchmark
+    public Map<String, String> diffParameters() {
+        return this.baseline.diff(this.variant).parameters();
+    }
+
+    @Benchmark
+    public Map<String, String> override() {
+        return this.baseline.with("currentAddress.city", "Boston").parameters();
+    }
+}
@@ -0,0 +1,179 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the entry points flattening a form, for several form shapes,
+ * and building a batch of requests one by one or at once.
+ * <p>
+ * Run with {@code -prof gc} to report the allocation rate along with the throughput.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FormFlatteningBenchmark {
+
+    private static final String URL = "/users";
+    private static final int BATCH_SIZE = 100;
+    private static final MockServletContext SERVLET_CONTEXT = new MockServletContext();
+
+    @Param
+    private Shape shape;
+
+    private Object form;
+    private Configuration config;
+    private FormTemplate<Object> template;
+    private List<Object> batch;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        this.form = this.shape.form();
+        this.config = this.shape.config();
+        this.template = (FormTemplate<Object>) MockMvcRequestBuilderUtils.prepare(this.form.getClass(), this.config);
+        this.batch = Collections.nCopies(BATCH_SIZE, this.form);
+    }
+
+    @Benchmark
+    public MockHttpServletRequestBuilder postForm() {
+        return MockMvcRequestBuilderUtils.postForm(URL, this.form, this.config);
+    }
+
+    @Benchmark
+    public MockHttpServletRequest formPostProcessor() {
+        return MockMvcRequestBuilderUtils.form(this.form, this.config).postProcessRequest(new MockHttpServletRequest());
+    }
+
+    @Benchmark
+    public Map<String, String> collectFields() {
+        return new FormFieldWrapper(this.form, this.config).collectFields();
+    }
+
+    @Benchmark
+    public Map<String, String> preparedTemplate() {
+        return this.template.apply(this.form);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void postFormEach(Blackhole blackhole) {
+        for (Object batchForm : this.batch) {
+            blackhole.consume(MockMvcRequestBuilderUtils.postForm(URL, batchForm, this.config).buildRequest(SERVLET_CONTEXT));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void postForms(Blackhole blackhole) {
+        MockMvcRequestBuilderUtils.postForms(URL, this.batch, this.config)
+                .forEach(builder -> blackhole.consume(builder.buildRequest(SERVLET_CONTEXT)));
+    }
+
+    public enum Shape {
+
+        FLAT {
+            @Override
+            Object form() {
+                return AddUserForm.builder()
+                        .firstName("John").name("Doe")
+                        .gender(AddUserForm.Gender.MALE)
+                        .identificationNumber(BigDecimal.ONE)
+                        .birthDate(LocalDate.of(2016, 8, 29))
+                        .build();
+            }
+        },
+
+        ADD_USER_FORM {
+            @Override
+            Object form() {
+                return TestFixtures.aCompleteAddUserForm();
+            }
+        },
+
+        LARGE_LIST {
+            @Override
+            Object form() {
+                final List<String> usernames = new ArrayList<>();
+                for (int i = 0; i < 10_000; i++) {
+                    usernames.add("user" + i);
+                }
+                return AddUserForm.builder()
+                        .usernames(usernames)
+                        .build();
+            }
+        },
+
+        COMPLEX_MAP {
+            @Override
+            Object form() {
+                final Map<String, AddUserForm.Diploma> diplomas = new LinkedHashMap<>();
+                for (int i = 0; i < 1_000; i++) {
+                    diplomas.put("diploma" + i, new AddUserForm.Diploma("Diploma " + i, LocalDate.of(2000, 1, 1).plusDays(i)));
+                }
+                return AddUserForm.builder()
+                        .diplomasMap(diplomas)
+                        .build();
+            }
+        },
+
+        DEEP_NESTING {
+            @Override
+            Object form() {
+                AddUserForm.Address address = TestFixtures.anAddress();
+                for (int i = 1; i < 64; i++) {
+                    address = new AddUserForm.Address(i, "Street " + i, 5222, "City " + i, address);
+                }
+                return AddUserForm.builder()
+                        .currentAddress(address)
+                        .build();
+            }
+        },
+
+        PROPERTY_EDITORS {
+            @Override
+            Object form() {
+                return TestFixtures.aCompleteAddUserForm();
+            }
+
+            @Override
+            Configuration config() {
+                return Configuration.builder()
+                        .withPropertyEditor(new CustomLocalDatePropertyEditor("dd/MM/yyyy"), LocalDate.class)
+                        .build();
+            }
+        };
+
+        abstract Object form();
+
+        Configuration config() {
+            return Configuration.DEFAULT;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures flattening square grids, held in nested lists or in a two-dimensional primitive array,
+ * whose cells are written as {@code grid[i][j]} parameters.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GridFormBenchmark {
+
+    @Param({"100", "1000"})
+    private int size;
+
+    private ListGridForm listForm;
+    private ArrayGridForm arrayForm;
+
+    @Setup
+    public void setUp() {
+        this.listForm = new ListGridForm();
+        this.listForm.grid = new ArrayList<>(this.size);
+        this.arrayForm = new ArrayGridForm();
+        this.arrayForm.grid = new int[this.size][this.size];
+        for (int i = 0; i < this.size; i++) {
+            final List<String> row = new ArrayList<>(this.size);
+            for (int j = 0; j < this.size; j++) {
+                row.add("cell");
+                this.arrayForm.grid[i][j] = i * j;
+            }
+            this.listForm.grid.add(row);
+        }
+    }
+
+    @Benchmark
+    public void nestedLists(Blackhole blackhole) {
+        FormFlattener.writeFields(this.listForm, Configuration.DEFAULT, (name, value) -> blackhole.consume(name));
+    }
+
+    @Benchmark
+    public void primitiveArrays(Blackhole blackhole) {
+        FormFlattener.writeFields(this.arrayForm, Configuration.DEFAULT, (name, value) -> blackhole.consume(name));
+    }
+
+    static class ListGridForm {
+        private List<List<String>> grid;
+    }
+
+    static class ArrayGridForm {
+        private int[][] grid;
+    }
+}
@@ -0,0 +1,78 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares flattening forms with and without memoizing immutable objects,
+ * either the whole form or shared fixtures nested in new forms.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MemoizedFormBenchmark {
+
+    private final Configuration memoizedForms = Configuration.builder()
+            .memoize(1_000)
+            .immutableTypes(type -> type == AddUserForm.class || type == AddUserForm.Address.class)
+            .build();
+    private final Configuration memoizedAddresses = Configuration.builder()
+            .memoize(1_000)
+            .immutableTypes(type -> type == AddUserForm.Address.class)
+            .build();
+
+    private AddUserForm completeForm;
+    private AddUserForm.Address[] sharedAddresses;
+
+    @Setup
+    public void setUp() {
+        this.completeForm = TestFixtures.aCompleteAddUserForm();
+        this.sharedAddresses = new AddUserForm.Address[]{
+                TestFixtures.anAddress().withLinkedAddress(TestFixtures.aLinkedAddress()),
+                TestFixtures.aLinkedAddress()
+        };
+    }
+
+    @Benchmark
+    public Map<String, String> completeForm() {
+        return FormFlattener.collectFields(this.completeForm, Configuration.DEFAULT);
+    }
+
+    @Benchmark
+    public Map<String, String> memoizedCompleteForm() {
+        return FormFlattener.collectFields(this.completeForm, this.memoizedForms);
+    }
+
+    @Benchmark
+    public Map<String, String> newFormWithSharedFixtures() {
+        return FormFlattener.collectFields(newForm(), Configuration.DEFAULT);
+    }
+
+    @Benchmark
+    public Map<String, String> newFormWithMemoizedFixtures() {
+        return FormFlattener.collectFields(newForm(), this.memoizedAddresses);
+    }
+
+    private AddUserForm newForm() {
+        return AddUserForm.builder()
+                .firstName("John")
+                .name("Doe")
+                .currentAddress(this.sharedAddresses[0])
+                .formerAddresses(this.sharedAddresses)
+                .build();
+    }
+}
@@ -0,0 +1,49 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of building parameter names for forms nested at increasing depths.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NestedPathBenchmark {
+
+    @Param({"1", "8", "32", "128"})
+    private int depth;
+
+    private AddUserForm form;
+
+    @Setup
+    public void setUp() {
+        AddUserForm.Address address = TestFixtures.anAddress();
+        for (int i = 1; i < this.depth; i++) {
+            address = new AddUserForm.Address(i, "Street " + i, 5222, "City " + i, address);
+        }
+        this.form = AddUserForm.builder()
+                .currentAddress(address)
+                .build();
+    }
+
+    @Benchmark
+    public void writeNestedForm(Blackhole blackhole) {
+        FormFlattener.writeFields(this.form, Configuration.DEFAULT, (name, value) -> blackhole.consume(name));
+    }
+}
@@ -0,0 +1,61 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the sequential and the parallel flattening of a form holding a large list of beans.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelFlatteningBenchmark {
+
+    private final Configuration parallelConfig = Configuration.builder()
+            .parallelThreshold(1_000)
+            .build();
+
+    @Param({"10000", "100000"})
+    private int size;
+
+    private AddUserForm form;
+
+    @Setup
+    public void setUp() {
+        final List<AddUserForm.Diploma> diplomas = new ArrayList<>();
+        for (int i = 0; i < this.size; i++) {
+            diplomas.add(new AddUserForm.Diploma("Diploma " + i, LocalDate.of(2000, 1, 1).plusDays(i % 10_000)));
+        }
+        this.form = AddUserForm.builder()
+                .diplomas(diplomas)
+                .build();
+    }
+
+    @Benchmark
+    public void sequential(Blackhole blackhole) {
+        FormFlattener.writeFields(this.form, Configuration.DEFAULT, (name, value) -> blackhole.consume(value));
+    }
+
+    @Benchmark
+    public void parallel(Blackhole blackhole) {
+        FormFlattener.writeFields(this.form, this.parallelConfig, (name, value) -> blackhole.consume(value));
+    }
+}
@@ -0,0 +1,65 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares flattening a large numeric array, read without boxing its elements, with flattening the same numbers
+ * held in a list of boxed values.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrimitiveArrayBenchmark {
+
+    @Param({"10000"})
+    private int size;
+
+    private ArrayForm arrayForm;
+    private ListForm listForm;
+
+    @Setup
+    public void setUp() {
+        this.arrayForm = new ArrayForm();
+        this.arrayForm.values = new long[this.size];
+        Arrays.setAll(this.arrayForm.values, i -> i * 7_919L);
+        this.listForm = new ListForm();
+        this.listForm.values = Arrays.stream(this.arrayForm.values).boxed().collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public void primitiveArray(Blackhole blackhole) {
+        FormFlattener.writeFields(this.arrayForm, Configuration.DEFAULT, (name, value) -> blackhole.consume(value));
+    }
+
+    @Benchmark
+    public void boxedList(Blackhole blackhole) {
+        FormFlattener.writeFields(this.listForm, Configuration.DEFAULT, (name, value) -> blackhole.consume(value));
+    }
+
+    static class ArrayForm {
+        private long[] values;
+    }
+
+    static class ListForm {
+        private List<Long> values;
+    }
+}
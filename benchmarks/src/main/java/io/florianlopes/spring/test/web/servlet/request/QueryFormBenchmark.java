@@ -0,0 +1,56 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares building GET requests holding a form in their query string, encoded by {@code getForm},
+ * and added parameter by parameter with {@link MockHttpServletRequestBuilder#queryParam(String, String...)},
+ * encoded by Spring when the request is built.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QueryFormBenchmark {
+
+    private static final String URL = "/users/search";
+    private static final MockServletContext SERVLET_CONTEXT = new MockServletContext();
+
+    private AddUserForm form;
+
+    @Setup
+    public void setUp() {
+        this.form = TestFixtures.aCompleteAddUserForm();
+    }
+
+    @Benchmark
+    public MockHttpServletRequest queryParams() {
+        final MockHttpServletRequestBuilder builder = MockMvcRequestBuilders.get(URL);
+        FormFlattener.writeFields(this.form, Configuration.DEFAULT, builder::queryParam);
+        return builder.buildRequest(SERVLET_CONTEXT);
+    }
+
+    @Benchmark
+    public MockHttpServletRequest getForm() {
+        final MockHttpServletRequestBuilder builder = MockMvcRequestBuilderUtils.getForm(URL, this.form);
+        // Post processors are applied by MockMvc
+        return builder.postProcessRequest(builder.buildRequest(SERVLET_CONTEXT));
+    }
+}
@@ -0,0 +1,66 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares formatting primitive and string fields with their {@link ScalarFormat}, reading primitives unboxed,
+ * with boxing them and formatting them with {@link String#valueOf(Object)}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScalarFormatBenchmark {
+
+    private AddUserForm.Address address;
+    private FormFieldMetadata postalCode;
+    private FormFieldMetadata city;
+
+    @Setup
+    public void setUp() {
+        this.address = TestFixtures.anAddress();
+        this.postalCode = fieldOf(Configuration.DEFAULT, "postalCode");
+        this.city = fieldOf(Configuration.DEFAULT, "city");
+    }
+
+    @Benchmark
+    public String scalarFormatPrimitive() {
+        return ScalarFormat.INT.read(this.postalCode.accessor(), this.address);
+    }
+
+    @Benchmark
+    public String stringValueOfBoxedPrimitive() {
+        return String.valueOf(this.postalCode.accessor().get(this.address));
+    }
+
+    @Benchmark
+    public String scalarFormatString() {
+        return ScalarFormat.STRING.read(this.city.accessor(), this.address);
+    }
+
+    @Benchmark
+    public void flattenAddress(Blackhole blackhole) {
+        MockMvcRequestBuilderUtils.writeForm(this.address, (name, value) -> blackhole.consume(value));
+    }
+
+    private static FormFieldMetadata fieldOf(Configuration config, String name) {
+        return config.metadataFor(AddUserForm.Address.class).fields().stream()
+                .filter(field -> field.name().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+}
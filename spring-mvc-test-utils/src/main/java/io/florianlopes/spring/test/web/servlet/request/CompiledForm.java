@@ -0,0 +1,13 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+/**
+ * Flattens instances of a single form class into HTTP request parameters.
+ * Implementations are generated at runtime by {@link FormCompiler}.
+ */
+interface CompiledForm {
+
+    /**
+     * Flattens the given form, formatting its values with the given configuration, the one it was compiled for.
+     */
+    void flatten(Object form, Configuration config, ParameterSink sink);
+}
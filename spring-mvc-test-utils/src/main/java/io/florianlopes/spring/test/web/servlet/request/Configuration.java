@@ -1,18 +1,32 @@
 package io.florianlopes.spring.test.web.servlet.request;
 
-import org.springframework.beans.PropertyEditorRegistrySupport;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.format.Formatter;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.format.support.DefaultFormattingConversionService;
+import org.springframework.util.ClassUtils;
 
 import java.beans.PropertyEditor;
 import java.beans.PropertyEditorSupport;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * Configuration class that allows inclusion/exclusion of specific fields.
- * Also allows to register one or more {@link PropertyEditor}
- * to customize how field values are added to the HTTP request
+ * Also allows to register one or more {@link PropertyEditor}, {@link Formatter} or {@link ConversionService}
+ * to customize how field values are added to the HTTP request.
+ * <p>
+ * Configurations are immutable and can be shared by tests running in parallel.
  */
 public class Configuration {
 
@@ -35,11 +49,43 @@ public class Configuration {
             .build();
 
     private final Predicate<Field> fieldPredicate;
-    private final PropertyEditorRegistrySupport propertyEditorRegistrySupport;
+    private final ValueFormatter valueFormatter;
+    private final boolean compileForms;
+    private final CyclePolicy cyclePolicy;
+    private final PropertyAccess propertyAccess;
+    private final int parallelThreshold;
+    private final ForkJoinPool forkJoinPool;
+    private final FlattenedFormCache flattenedForms;
+    private final FormUrlEncoder urlEncoder;
+    private final FlatteningListener flatteningListener;
+    private final TraversalLimits limits;
+    private final FormUrlEncoder queryEncoder = FormUrlEncoder.forQuery();
+    private final ClassValue<Boolean> memoizedTypes;
+    private final FormClassMetadata.Cache metadataCache;
+    private final FormCompiler.Cache compiledForms;
 
-    private Configuration(Predicate<Field> fieldPredicate, PropertyEditorRegistrySupport propertyEditorRegistrySupport) {
+    private Configuration(Builder builder, Predicate<Field> fieldPredicate) {
         this.fieldPredicate = fieldPredicate;
-        this.propertyEditorRegistrySupport = propertyEditorRegistrySupport;
+        this.valueFormatter = new ValueFormatter(builder.propertyEditorFactories, builder.sharedPropertyEditors,
+                builder.conversionServices());
+        this.compileForms = builder.compileForms;
+        this.cyclePolicy = builder.cyclePolicy;
+        this.propertyAccess = builder.propertyAccess;
+        this.parallelThreshold = builder.parallelThreshold;
+        this.forkJoinPool = builder.forkJoinPool;
+        this.flattenedForms = builder.memoizationSize > 0 ? new FlattenedFormCache(builder.memoizationSize) : null;
+        this.urlEncoder = builder.encodeBody ? FormUrlEncoder.forBody() : null;
+        this.flatteningListener = builder.flatteningListener;
+        this.limits = builder.limits();
+        final Predicate<Class<?>> immutableTypes = builder.immutableTypes;
+        this.memoizedTypes = new ClassValue<>() {
+            @Override
+            protected Boolean computeValue(Class<?> type) {
+                return type.isAnnotationPresent(ImmutableForm.class) || immutableTypes.test(type);
+            }
+        };
+        this.metadataCache = new FormClassMetadata.Cache(fieldPredicate, builder.propertyAccess, builder.scalarTypes);
+        this.compiledForms = new FormCompiler.Cache(this);
     }
 
     /**
@@ -53,26 +99,156 @@ public class Configuration {
         return fieldPredicate;
     }
 
+    /**
+     * Returns the reflective metadata of the given class, computed once per class for this configuration.
+     */
+    FormClassMetadata metadataFor(Class<?> type) {
+        return this.metadataCache.get(type);
+    }
+
+    public boolean compileForms() {
+        return compileForms;
+    }
+
+    public CyclePolicy cyclePolicy() {
+        return cyclePolicy;
+    }
+
+    public PropertyAccess propertyAccess() {
+        return propertyAccess;
+    }
+
+    /**
+     * Returns the minimum number of elements of iterables, arrays and maps flattened in parallel,
+     * or 0 if parallel flattening is disabled.
+     */
+    public int parallelThreshold() {
+        return parallelThreshold;
+    }
+
+    boolean flattensInParallel(int size) {
+        return this.parallelThreshold > 0 && size >= this.parallelThreshold;
+    }
+
+    ForkJoinPool forkJoinPool() {
+        return this.forkJoinPool != null ? this.forkJoinPool : ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Returns whether the parameters of objects of the given class are memoized.
+     */
+    boolean memoizes(Class<?> type) {
+        return this.flattenedForms != null && this.memoizedTypes.get(type);
+    }
+
+    FlattenedFormCache flattenedForms() {
+        return this.flattenedForms;
+    }
+
+    /**
+     * Returns whether the parameters are also written to the request content, as an URL encoded body.
+     */
+    public boolean encodeBody() {
+        return this.urlEncoder != null;
+    }
+
+    /**
+     * Returns the listener receiving the metrics of each flattened form, or null if there is none.
+     */
+    public FlatteningListener flatteningListener() {
+        return this.flatteningListener;
+    }
+
+    /**
+     * Returns the limits of the traversal of forms, or null if forms are not limited.
+     */
+    TraversalLimits limits() {
+        return this.limits;
+    }
+
+    /**
+     * Returns the encoder of request bodies, or null if bodies are not encoded.
+     */
+    FormUrlEncoder urlEncoder() {
+        return this.urlEncoder;
+    }
+
+    /**
+     * Returns the encoder of query strings, caching the encoded path segments of the forms sent in queries.
+     */
+    FormUrlEncoder queryEncoder() {
+        return this.queryEncoder;
+    }
+
+    /**
+     * Returns the compiled form of the given class, generated once per class for this configuration,
+     * or an empty optional if the class cannot be compiled.
+     * Templates compile their form class even when this configuration does not compile forms.
+     * Forms are not compiled when their traversal is limited, as generated classes do not enforce limits.
+     */
+    Optional<CompiledForm> compiledFormFor(Class<?> type) {
+        return this.limits == null ? this.compiledForms.get(type) : Optional.empty();
+    }
+
+    /**
+     * Returns the format of the values of the given field when they are formatted without property editor
+     * nor conversion service, or an empty optional.
+     */
+    Optional<ScalarFormat> scalarFormatFor(FormFieldMetadata field) {
+        return this.valueFormatter.scalarFormatFor(field);
+    }
+
+    /**
+     * Returns the property editor registered for the given class, as seen by the current thread.
+     */
     public PropertyEditor propertyEditorFor(Class<?> propertyEditorClass) {
-        return this.propertyEditorRegistrySupport.hasCustomEditorForElement(propertyEditorClass, null) ?
-                this.propertyEditorRegistrySupport.findCustomEditor(propertyEditorClass, null) :
-                this.propertyEditorRegistrySupport.getDefaultEditor(propertyEditorClass);
+        return this.valueFormatter.editorFor(propertyEditorClass);
     }
 
     public boolean hasPropertyEditorFor(Class<?> propertyEditorClass) {
-        return this.propertyEditorRegistrySupport.hasCustomEditorForElement(propertyEditorClass, null) ||
-               this.propertyEditorRegistrySupport.getDefaultEditor(propertyEditorClass) != null;
+        return this.valueFormatter.editorFor(propertyEditorClass) != null;
+    }
+
+    /**
+     * Formats a value of the given field with its property editor, formatter or conversion service, if any.
+     * Safe to call concurrently.
+     */
+    String format(FormFieldMetadata field, Object value) {
+        return this.valueFormatter.format(field, value);
     }
 
     public static class Builder {
 
         private static final Predicate<Field> BASE_PREDICATE = FieldPredicates::isNotSynthetic;
+        private static final boolean MICROMETER_PRESENT =
+                ClassUtils.isPresent("io.micrometer.core.instrument.MeterRegistry", Configuration.class.getClassLoader());
 
-        private final PropertyEditorRegistrySupport propertyEditorRegistrySupport = new PropertyEditorRegistrySupport();
+        private final Map<Class<?>, Supplier<? extends PropertyEditor>> propertyEditorFactories = new LinkedHashMap<>();
+        private final List<PropertyEditor> sharedPropertyEditors = new ArrayList<>();
+        private final List<Consumer<FormatterRegistry>> formatterRegistrations = new ArrayList<>();
+        private final List<Class<?>> scalarTypes = new ArrayList<>();
+        private ConversionService conversionService;
         private Predicate<Field> fieldPredicate;
         private boolean includeFinal = true;
         private boolean includeTransient = false;
         private boolean includeStatic = false;
+        private boolean compileForms = false;
+        private CyclePolicy cyclePolicy = CyclePolicy.FAIL;
+        private PropertyAccess propertyAccess = PropertyAccess.FIELD;
+        private int parallelThreshold = 0;
+        private ForkJoinPool forkJoinPool;
+        private int memoizationSize = 0;
+        private Predicate<Class<?>> immutableTypes = type -> false;
+        private boolean encodeBody = false;
+        private FlatteningListener flatteningListener;
+        private int maxDepth = TraversalLimits.UNLIMITED;
+        private LimitPolicy depthPolicy;
+        private int maxParameters = TraversalLimits.UNLIMITED;
+        private LimitPolicy parametersPolicy;
+        private int maxCollectionSize = TraversalLimits.UNLIMITED;
+        private LimitPolicy collectionSizePolicy;
+        private long maxValueBytes = Long.MAX_VALUE;
+        private LimitPolicy valueBytesPolicy;
 
         private Builder() {
         }
@@ -97,12 +273,266 @@ public class Configuration {
             return this;
         }
 
+        /**
+         * Compiles each form class to a generated class that writes its parameters directly,
+         * instead of walking the form reflectively on every request.
+         * Worth enabling when the same form classes are posted many times.
+         * Form classes of templates are compiled whatever this flag (see {@link MockMvcRequestBuilderUtils#prepare(Class, Configuration)}).
+         */
+        public Builder compileForms(boolean compileForms) {
+            this.compileForms = compileForms;
+            return this;
+        }
+
+        /**
+         * Adds values of the given type, and of its subtypes, to the HTTP request as a single parameter
+         * formatted like any other field value, instead of adding each of their fields.
+         */
+        public Builder withScalarType(Class<?> scalarType) {
+            this.scalarTypes.add(Objects.requireNonNull(scalarType, "scalarType cannot be null"));
+            return this;
+        }
+
+        /**
+         * Defines how cycles in form object graphs are handled. Defaults to {@link CyclePolicy#FAIL}.
+         */
+        public Builder cyclePolicy(CyclePolicy cyclePolicy) {
+            this.cyclePolicy = Objects.requireNonNull(cyclePolicy, "cyclePolicy cannot be null");
+            return this;
+        }
+
+        /**
+         * Defines how values are read from form objects. Defaults to {@link PropertyAccess#FIELD}.
+         */
+        public Builder propertyAccess(PropertyAccess propertyAccess) {
+            this.propertyAccess = Objects.requireNonNull(propertyAccess, "propertyAccess cannot be null");
+            return this;
+        }
+
+        /**
+         * Flattens iterables, arrays and maps holding at least the given number of elements in parallel,
+         * split in chunks run on the {@link #forkJoinPool(ForkJoinPool) fork-join pool}.
+         * Parameters keep the same names and order as when flattened sequentially. Disabled by default.
+         */
+        public Builder parallelThreshold(int parallelThreshold) {
+            if (parallelThreshold < 1) {
+                throw new IllegalArgumentException("parallelThreshold must be positive");
+            }
+            this.parallelThreshold = parallelThreshold;
+            return this;
+        }
+
+        /**
+         * Defines the pool running parallel flattening. Defaults to the {@link ForkJoinPool#commonPool() common pool}.
+         */
+        public Builder forkJoinPool(ForkJoinPool forkJoinPool) {
+            this.forkJoinPool = Objects.requireNonNull(forkJoinPool, "forkJoinPool cannot be null");
+            return this;
+        }
+
+        /**
+         * Memoizes the parameters of immutable objects, so that each of them is flattened once, whether it is a form
+         * or an object nested in forms, like a shared fixture. Classes annotated with {@link ImmutableForm}
+         * and {@link #immutableTypes(Predicate) immutable types} are memoized, and must be deeply immutable.
+         * Records are only memoized when declared immutable, since their components may be mutable.
+         * <p>
+         * At most the given number of objects are memoized, the least recently used ones are evicted first.
+         * Memoized objects are weakly referenced. Disabled by default.
+         */
+        public Builder memoize(int maximumSize) {
+            if (maximumSize < 1) {
+                throw new IllegalArgumentException("maximumSize must be positive");
+            }
+            this.memoizationSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * Declares the given classes as deeply immutable, in addition to classes annotated with {@link ImmutableForm}.
+         * Records of deeply immutable components can be declared with {@code immutableTypes(Class::isRecord)}.
+         *
+         * @see #memoize(int)
+         */
+        public Builder immutableTypes(Predicate<Class<?>> immutableTypes) {
+            this.immutableTypes = this.immutableTypes.or(Objects.requireNonNull(immutableTypes, "immutableTypes cannot be null"));
+            return this;
+        }
+
+        /**
+         * Also writes the parameters to the request content, as an {@code application/x-www-form-urlencoded} UTF-8 body,
+         * for request handlers reading the raw body rather than the request parameters.
+         * Parameter names are encoded once per configuration. Disabled by default.
+         */
+        public Builder encodeBody(boolean encodeBody) {
+            this.encodeBody = encodeBody;
+            return this;
+        }
+
+        /**
+         * Limits the depth of parameters, the number of segments of their names: {@code name} is at depth 1,
+         * {@code address.city} and {@code tags[0]} at depth 2. Deeper objects are not traversed. Unlimited by default.
+         * <p>
+         * Objects reachable from several paths are traversed again from each path when the depth is limited.
+         */
+        public Builder maxDepth(int maxDepth, LimitPolicy policy) {
+            if (maxDepth < 1) {
+                throw new IllegalArgumentException("maxDepth must be positive");
+            }
+            this.depthPolicy = Objects.requireNonNull(policy, "policy cannot be null");
+            this.maxDepth = maxDepth;
+            return this;
+        }
+
+        /**
+         * Limits the number of parameters of each form. Traversal stops at the first parameter over the limit,
+         * {@link LimitPolicy#SAMPLE} truncating like {@link LimitPolicy#TRUNCATE}. Unlimited by default.
+         * <p>
+         * Chunks of {@link #parallelThreshold(int) parallel} traversals enforce the limit on their own parameters,
+         * the limit of the whole form being enforced as their parameters are written.
+         */
+        public Builder maxParameters(int maxParameters, LimitPolicy policy) {
+            if (maxParameters < 1) {
+                throw new IllegalArgumentException("maxParameters must be positive");
+            }
+            this.parametersPolicy = Objects.requireNonNull(policy, "policy cannot be null");
+            this.maxParameters = maxParameters;
+            return this;
+        }
+
+        /**
+         * Limits the number of elements of each iterable, array and map of forms. Elements over the limit are not
+         * traversed: {@link LimitPolicy#TRUNCATE} keeps the first elements, {@link LimitPolicy#SAMPLE} elements spread
+         * evenly across the collection. Unlimited by default.
+         */
+        public Builder maxCollectionSize(int maxCollectionSize, LimitPolicy policy) {
+            if (maxCollectionSize < 1) {
+                throw new IllegalArgumentException("maxCollectionSize must be positive");
+            }
+            this.collectionSizePolicy = Objects.requireNonNull(policy, "policy cannot be null");
+            this.maxCollectionSize = maxCollectionSize;
+            return this;
+        }
+
+        /**
+         * Limits the total size of the parameter values of each form, encoded in UTF-8. Traversal stops at the first
+         * parameter over the limit, {@link LimitPolicy#SAMPLE} truncating like {@link LimitPolicy#TRUNCATE}.
+         * Unlimited by default.
+         */
+        public Builder maxValueBytes(long maxValueBytes, LimitPolicy policy) {
+            if (maxValueBytes < 1) {
+                throw new IllegalArgumentException("maxValueBytes must be positive");
+            }
+            this.valueBytesPolicy = Objects.requireNonNull(policy, "policy cannot be null");
+            this.maxValueBytes = maxValueBytes;
+            return this;
+        }
+
+        private TraversalLimits limits() {
+            if (this.depthPolicy == null && this.parametersPolicy == null && this.collectionSizePolicy == null
+                && this.valueBytesPolicy == null) {
+                return null;
+            }
+            return new TraversalLimits(this.maxDepth, this.depthPolicy, this.maxParameters, this.parametersPolicy,
+                    this.maxCollectionSize, this.collectionSizePolicy, this.maxValueBytes, this.valueBytesPolicy);
+        }
+
+        /**
+         * Reports the metrics of each form flattened with this configuration to the given listener, in addition to
+         * the listeners already registered. Forms are only counted and timed when a listener is registered.
+         */
+        public Builder withFlatteningListener(FlatteningListener flatteningListener) {
+            Objects.requireNonNull(flatteningListener, "flatteningListener cannot be null");
+            final FlatteningListener registeredListener = this.flatteningListener;
+            this.flatteningListener = registeredListener == null ? flatteningListener : metrics -> {
+                registeredListener.onFormFlattened(metrics);
+                flatteningListener.onFormFlattened(metrics);
+            };
+            return this;
+        }
+
+        /**
+         * Records the metrics of each flattened form in Micrometer's global registry, when Micrometer is on the classpath.
+         * Does nothing otherwise.
+         *
+         * @see MicrometerFlatteningListener
+         */
+        public Builder withMicrometerMetrics() {
+            // The listener class links against Micrometer, so it is only loaded when Micrometer is present
+            if (MICROMETER_PRESENT) {
+                withFlatteningListener(MicrometerFlatteningListener.globalRegistryListener());
+            }
+            return this;
+        }
+
+        /**
+         * Registers a property editor instance shared by every thread using this configuration.
+         * As property editors are stateful, the editor is locked while formatting a value:
+         * prefer {@link #withPropertyEditorFactory(Supplier, Class)} for configurations shared by parallel tests.
+         */
         public Builder withPropertyEditor(PropertyEditorSupport propertyEditor, Class<?> propertyEditorClass) {
             Objects.requireNonNull(propertyEditor, "propertyEditor cannot be null");
-            this.propertyEditorRegistrySupport.registerCustomEditor(propertyEditorClass, propertyEditor);
+            Objects.requireNonNull(propertyEditorClass, "propertyEditorClass cannot be null");
+            this.propertyEditorFactories.put(propertyEditorClass, () -> propertyEditor);
+            this.sharedPropertyEditors.add(propertyEditor);
             return this;
         }
 
+        /**
+         * Registers a factory of property editors, called once per thread using this configuration.
+         * Each thread then formats values with its own editor, without locking.
+         */
+        public Builder withPropertyEditorFactory(Supplier<? extends PropertyEditor> propertyEditorFactory, Class<?> propertyEditorClass) {
+            Objects.requireNonNull(propertyEditorFactory, "propertyEditorFactory cannot be null");
+            Objects.requireNonNull(propertyEditorClass, "propertyEditorClass cannot be null");
+            this.propertyEditorFactories.put(propertyEditorClass, propertyEditorFactory);
+            return this;
+        }
+
+        /**
+         * Converts field values without a property editor with the given conversion service,
+         * for instance the one used by the application data binder.
+         */
+        public Builder withConversionService(ConversionService conversionService) {
+            this.conversionService = Objects.requireNonNull(conversionService, "conversionService cannot be null");
+            return this;
+        }
+
+        /**
+         * Registers a formatter for the field type it is declared for. Formatters are registered in a
+         * {@link DefaultFormattingConversionService}, which also honors {@code @DateTimeFormat} and {@code @NumberFormat}
+         * annotations, and is used before the conversion service, if any.
+         */
+        public Builder withFormatter(Formatter<?> formatter) {
+            Objects.requireNonNull(formatter, "formatter cannot be null");
+            this.formatterRegistrations.add(registry -> registry.addFormatter(formatter));
+            return this;
+        }
+
+        /**
+         * Registers a formatter for the given field type.
+         *
+         * @see #withFormatter(Formatter)
+         */
+        public Builder withFormatter(Class<?> fieldType, Formatter<?> formatter) {
+            Objects.requireNonNull(fieldType, "fieldType cannot be null");
+            Objects.requireNonNull(formatter, "formatter cannot be null");
+            this.formatterRegistrations.add(registry -> registry.addFormatterForFieldType(fieldType, formatter));
+            return this;
+        }
+
+        private List<ConversionService> conversionServices() {
+            final List<ConversionService> conversionServices = new ArrayList<>();
+            if (!this.formatterRegistrations.isEmpty()) {
+                final DefaultFormattingConversionService formattingConversionService = new DefaultFormattingConversionService();
+                this.formatterRegistrations.forEach(registration -> registration.accept(formattingConversionService));
+                conversionServices.add(formattingConversionService);
+            }
+            if (this.conversionService != null) {
+                conversionServices.add(this.conversionService);
+            }
+            return conversionServices;
+        }
+
         public Configuration build() {
             Predicate<Field> fieldPredicate = this.fieldPredicate != null ? BASE_PREDICATE.and(this.fieldPredicate) : BASE_PREDICATE;
 
@@ -118,7 +548,7 @@ public class Configuration {
                 fieldPredicate = fieldPredicate.and(FieldPredicates::isNotStatic);
             }
 
-            return new Configuration(fieldPredicate, this.propertyEditorRegistrySupport);
+            return new Configuration(this, fieldPredicate);
         }
     }
 
@@ -0,0 +1,21 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+/**
+ * Defines how cycles in a form object graph are handled,
+ * for example a parent and a child referencing each other.
+ *
+ * @see Configuration.Builder#cyclePolicy(CyclePolicy)
+ */
+public enum CyclePolicy {
+
+    /**
+     * Throws an {@link IllegalStateException} when a cycle is detected.
+     */
+    FAIL,
+
+    /**
+     * Stops traversing the object graph where a cycle is detected:
+     * the object closing the cycle adds no parameter.
+     */
+    TRUNCATE
+}
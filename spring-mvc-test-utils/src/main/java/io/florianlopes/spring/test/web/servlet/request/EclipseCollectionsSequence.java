@@ -0,0 +1,56 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import org.eclipse.collections.api.list.primitive.DoubleList;
+import org.eclipse.collections.api.list.primitive.IntList;
+import org.eclipse.collections.api.list.primitive.LongList;
+
+/**
+ * Reads the elements of Eclipse Collections {@link IntList}s, {@link LongList}s and {@link DoubleList}s without boxing them.
+ * Only loaded when Eclipse Collections is on the classpath.
+ */
+enum EclipseCollectionsSequence implements PrimitiveSequence {
+    INT {
+        @Override
+        public int size(Object sequence) {
+            return ((IntList) sequence).size();
+        }
+
+        @Override
+        public String format(Object sequence, int index) {
+            return ScalarFormat.formatInt(((IntList) sequence).get(index));
+        }
+    },
+    LONG {
+        @Override
+        public int size(Object sequence) {
+            return ((LongList) sequence).size();
+        }
+
+        @Override
+        public String format(Object sequence, int index) {
+            return ScalarFormat.formatLong(((LongList) sequence).get(index));
+        }
+    },
+    DOUBLE {
+        @Override
+        public int size(Object sequence) {
+            return ((DoubleList) sequence).size();
+        }
+
+        @Override
+        public String format(Object sequence, int index) {
+            return Double.toString(((DoubleList) sequence).get(index));
+        }
+    };
+
+    static EclipseCollectionsSequence of(Class<?> type) {
+        if (IntList.class.isAssignableFrom(type)) {
+            return INT;
+        } else if (LongList.class.isAssignableFrom(type)) {
+            return LONG;
+        } else if (DoubleList.class.isAssignableFrom(type)) {
+            return DOUBLE;
+        }
+        return null;
+    }
+}
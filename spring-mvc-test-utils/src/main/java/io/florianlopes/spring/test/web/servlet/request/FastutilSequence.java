@@ -0,0 +1,56 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import it.unimi.dsi.fastutil.doubles.DoubleList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.longs.LongList;
+
+/**
+ * Reads the elements of fastutil {@link IntList}s, {@link LongList}s and {@link DoubleList}s without boxing them.
+ * Only loaded when fastutil is on the classpath.
+ */
+enum FastutilSequence implements PrimitiveSequence {
+    INT {
+        @Override
+        public int size(Object sequence) {
+            return ((IntList) sequence).size();
+        }
+
+        @Override
+        public String format(Object sequence, int index) {
+            return ScalarFormat.formatInt(((IntList) sequence).getInt(index));
+        }
+    },
+    LONG {
+        @Override
+        public int size(Object sequence) {
+            return ((LongList) sequence).size();
+        }
+
+        @Override
+        public String format(Object sequence, int index) {
+            return ScalarFormat.formatLong(((LongList) sequence).getLong(index));
+        }
+    },
+    DOUBLE {
+        @Override
+        public int size(Object sequence) {
+            return ((DoubleList) sequence).size();
+        }
+
+        @Override
+        public String format(Object sequence, int index) {
+            return Double.toString(((DoubleList) sequence).getDouble(index));
+        }
+    };
+
+    static FastutilSequence of(Class<?> type) {
+        if (IntList.class.isAssignableFrom(type)) {
+            return INT;
+        } else if (LongList.class.isAssignableFrom(type)) {
+            return LONG;
+        } else if (DoubleList.class.isAssignableFrom(type)) {
+            return DOUBLE;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,153 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Reads the value of a single field, or of a single property through its getter, with {@link MethodHandle}s
+ * resolved once with {@link MethodHandles#privateLookupIn(Class, MethodHandles.Lookup)}.
+ * Primitive fields can be read with the typed getters ({@link #getInt(Object)}, {@link #getLong(Object)}, ...)
+ * to avoid boxing their value.
+ */
+final class FieldAccessor {
+
+    private static final MethodType OBJECT_GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    // Describes the field or the property in error messages, such as "field 'name' of class AddUserForm"
+    private final String description;
+    private final MethodHandle objectGetter;
+    private final MethodHandle typedGetter;
+
+    private FieldAccessor(String description, Class<?> type, MethodHandle getter) {
+        this.description = description;
+        this.objectGetter = getter.asType(OBJECT_GETTER_TYPE);
+        this.typedGetter = getter.asType(MethodType.methodType(type, Object.class));
+    }
+
+    /**
+     * Creates an accessor for the given field.
+     *
+     * @throws IllegalStateException if the field's declaring class is not open to this library
+     */
+    static FieldAccessor of(Field field) {
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup());
+            MethodHandle getter = lookup.unreflectGetter(field);
+            if (Modifier.isStatic(field.getModifiers())) {
+                getter = MethodHandles.dropArguments(getter, 0, Object.class);
+            }
+            return new FieldAccessor(describe("field", field.getName(), field.getDeclaringClass()), field.getType(), getter);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Could not access field '" + field.getName() + "' of " + field.getDeclaringClass(), e);
+        }
+    }
+
+    /**
+     * Creates an accessor for the property read by the given getter, such as a JavaBean getter or a record component accessor.
+     *
+     * @throws IllegalStateException if the getter's declaring class is not open to this library
+     */
+    static FieldAccessor of(String propertyName, Method getter) {
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(getter.getDeclaringClass(), MethodHandles.lookup());
+            return new FieldAccessor(describe("property", propertyName, getter.getDeclaringClass()), getter.getReturnType(),
+                    lookup.unreflect(getter));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Could not access property '" + propertyName + "' of " + getter.getDeclaringClass(), e);
+        }
+    }
+
+    private static String describe(String kind, String name, Class<?> declaringClass) {
+        return kind + " '" + name + "' of " + declaringClass;
+    }
+
+    /**
+     * Returns the getter of this field, adapted to the {@code (Object)Object} type.
+     */
+    MethodHandle getter() {
+        return objectGetter;
+    }
+
+    Object get(Object target) {
+        try {
+            return (Object) this.objectGetter.invokeExact(target);
+        } catch (Throwable e) {
+            throw readFailure(e);
+        }
+    }
+
+    boolean getBoolean(Object target) {
+        try {
+            return (boolean) this.typedGetter.invokeExact(target);
+        } catch (Throwable e) {
+            throw readFailure(e);
+        }
+    }
+
+    byte getByte(Object target) {
+        try {
+            return (byte) this.typedGetter.invokeExact(target);
+        } catch (Throwable e) {
+            throw readFailure(e);
+        }
+    }
+
+    char getChar(Object target) {
+        try {
+            return (char) this.typedGetter.invokeExact(target);
+        } catch (Throwable e) {
+            throw readFailure(e);
+        }
+    }
+
+    short getShort(Object target) {
+        try {
+            return (short) this.typedGetter.invokeExact(target);
+        } catch (Throwable e) {
+            throw readFailure(e);
+        }
+    }
+
+    int getInt(Object target) {
+        try {
+            return (int) this.typedGetter.invokeExact(target);
+        } catch (Throwable e) {
+            throw readFailure(e);
+        }
+    }
+
+    long getLong(Object target) {
+        try {
+            return (long) this.typedGetter.invokeExact(target);
+        } catch (Throwable e) {
+            throw readFailure(e);
+        }
+    }
+
+    float getFloat(Object target) {
+        try {
+            return (float) this.typedGetter.invokeExact(target);
+        } catch (Throwable e) {
+            throw readFailure(e);
+        }
+    }
+
+    double getDouble(Object target) {
+        try {
+            return (double) this.typedGetter.invokeExact(target);
+        } catch (Throwable e) {
+            throw readFailure(e);
+        }
+    }
+
+    private IllegalStateException readFailure(Throwable cause) {
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException("Could not read " + this.description, cause);
+    }
+}
@@ -0,0 +1,120 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of the parameters of immutable form objects, evicting the least recently used entries.
+ * <p>
+ * Objects are weakly referenced, so that cached entries never prevent fixtures from being garbage collected.
+ * Objects of classes overriding {@link Object#equals(Object)}, such as records, are looked up by equality,
+ * so that equal instances share their entry. Other objects are looked up by identity.
+ * Parameter names are relative to the object: they start with the {@code .} separator of its first field.
+ */
+final class FlattenedFormCache {
+
+    private static final ClassValue<Boolean> EQUALITY_KEYS = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("equals", Object.class).getDeclaringClass() != Object.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
+    private final ReferenceQueue<Object> collectedObjects = new ReferenceQueue<>();
+    private final LruEntries entries;
+
+    FlattenedFormCache(int maximumSize) {
+        this.entries = new LruEntries(maximumSize);
+    }
+
+    synchronized Parameters get(Object object) {
+        expungeCollectedObjects();
+        return this.entries.get(new Key(object, null));
+    }
+
+    synchronized void put(Object object, Parameters parameters) {
+        expungeCollectedObjects();
+        this.entries.put(new Key(object, this.collectedObjects), parameters);
+    }
+
+    synchronized int size() {
+        expungeCollectedObjects();
+        return this.entries.size();
+    }
+
+    private void expungeCollectedObjects() {
+        Object key;
+        while ((key = this.collectedObjects.poll()) != null) {
+            this.entries.remove(key);
+        }
+    }
+
+    /**
+     * Parameters of a cached object, with names relative to the object.
+     * The names are also kept without their leading separator, as written when the object is the form itself.
+     */
+    record Parameters(String[] names, String[] rootNames, String[] values) {
+
+        Parameters(String[] names, String[] values) {
+            this(names, Arrays.stream(names).map(name -> name.substring(1)).toArray(String[]::new), values);
+        }
+    }
+
+    private static final class LruEntries extends LinkedHashMap<Key, Parameters> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int maximumSize;
+
+        LruEntries(int maximumSize) {
+            super(16, 0.75f, true);
+            this.maximumSize = maximumSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Parameters> eldest) {
+            return size() > this.maximumSize;
+        }
+    }
+
+    private static final class Key extends WeakReference<Object> {
+
+        private final boolean equality;
+        private final int hash;
+
+        Key(Object object, ReferenceQueue<Object> queue) {
+            super(object, queue);
+            this.equality = EQUALITY_KEYS.get(object.getClass());
+            this.hash = this.equality ? object.hashCode() : System.identityHashCode(object);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key key) || key.hash != this.hash || key.equality != this.equality) {
+                return false;
+            }
+            final Object object = get();
+            final Object otherObject = key.get();
+            if (object == null || otherObject == null) {
+                // Collected objects are only equal to their own key
+                return false;
+            }
+            return this.equality ? object.getClass() == otherObject.getClass() && object.equals(otherObject) : object == otherObject;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+/**
+ * Receives the metrics of each form flattened with a configuration, to find out which forms make a test suite slow.
+ * <p>
+ * Listeners are called from the thread flattening the form, once the form is flattened, and must be thread-safe
+ * when the configuration is shared by parallel tests.
+ *
+ * @see Configuration.Builder#withFlatteningListener(FlatteningListener)
+ * @see MicrometerFlatteningListener
+ */
+@FunctionalInterface
+public interface FlatteningListener {
+
+    /**
+     * Receives the metrics of a flattened form.
+     *
+     * @param metrics the counts and timings of the flattening
+     */
+    void onFormFlattened(FlatteningMetrics metrics);
+}
@@ -0,0 +1,37 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+/**
+ * Counts and timings of the flattening of a form into HTTP request parameters.
+ * <p>
+ * Nodes and reads are counted by the reflective traversal: values written by compiled forms, and objects whose
+ * parameters are replayed, are not read again. Timings are in nanoseconds; when collections are flattened in parallel,
+ * formatting time is summed across threads.
+ *
+ * @param formClass         the class of the flattened form
+ * @param nodesVisited      the number of non-null objects and values visited by the reflective traversal
+ * @param reflectiveReads   the number of field values read reflectively
+ * @param formatterCalls    the number of field values formatted with property editors, conversion services or {@code toString()}
+ * @param parametersEmitted the number of parameters added to the request
+ * @param discoveryNanos    the time spent walking the form and reading its values
+ * @param formattingNanos   the time spent formatting values
+ * @param applicationNanos  the time spent adding the parameters to the request
+ * @see FlatteningListener
+ */
+public record FlatteningMetrics(
+        Class<?> formClass,
+        long nodesVisited,
+        long reflectiveReads,
+        long formatterCalls,
+        long parametersEmitted,
+        long discoveryNanos,
+        long formattingNanos,
+        long applicationNanos
+) {
+
+    /**
+     * Returns the total time spent flattening the form, in nanoseconds.
+     */
+    public long totalNanos() {
+        return this.discoveryNanos + this.formattingNanos + this.applicationNanos;
+    }
+}
@@ -0,0 +1,129 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import java.util.function.Consumer;
+
+/**
+ * Counts and times the flattening of a single form, for the {@link FlatteningListener} of its configuration
+ * and for the Flight Recorder events {@link FormFlattenedEvent} and {@link FormFieldFormattedEvent}.
+ * Nothing is recorded when the configuration has no listener and both events are disabled.
+ * <p>
+ * The recorder of the form being flattened is bound to the calling thread, so that generated code of compiled forms
+ * and reflective fallbacks record into it. Chunks of collections flattened in parallel use their own recorder,
+ * added to the recorder of the form once joined.
+ */
+final class FlatteningRecorder {
+
+    private static final ThreadLocal<FlatteningRecorder> CURRENT = new ThreadLocal<>();
+
+    private long nodesVisited;
+    private long reflectiveReads;
+    private long formatterCalls;
+    private long parametersEmitted;
+    private long parameterBytes;
+    private long formattingNanos;
+    private long applicationNanos;
+
+    /**
+     * Returns whether flattenings with the given configuration are recorded.
+     */
+    static boolean isEnabled(Configuration config) {
+        return config.flatteningListener() != null || FormFlattenedEvent.enabled() || FormFieldFormattedEvent.enabled();
+    }
+
+    /**
+     * Returns the recorder of the form being flattened by the current thread, or null if nothing is recorded.
+     */
+    static FlatteningRecorder current(Configuration config) {
+        return isEnabled(config) ? CURRENT.get() : null;
+    }
+
+    /**
+     * Runs the given flattening of the given form, then reports its metrics to the listener of the configuration
+     * and commits its Flight Recorder event.
+     * Flattenings nested in the flattening of another form are recorded as part of it.
+     *
+     * @param flattening writes the parameters of the form to the sink it receives
+     */
+    static void record(Configuration config, Object form, ParameterSink sink, Consumer<ParameterSink> flattening) {
+        if (CURRENT.get() != null) {
+            flattening.accept(sink);
+            return;
+        }
+        final FlatteningRecorder recorder = new FlatteningRecorder();
+        final FormFlattenedEvent event = new FormFlattenedEvent();
+        CURRENT.set(recorder);
+        event.begin();
+        final long start = System.nanoTime();
+        try {
+            flattening.accept(recorder.sink(sink));
+        } finally {
+            CURRENT.remove();
+        }
+        final long elapsedNanos = System.nanoTime() - start;
+        if (event.shouldCommit()) {
+            event.formClass = form.getClass();
+            event.nodes = recorder.nodesVisited;
+            event.parameters = recorder.parametersEmitted;
+            event.bytes = recorder.parameterBytes;
+            event.commit();
+        }
+        final FlatteningListener listener = config.flatteningListener();
+        if (listener != null) {
+            listener.onFormFlattened(recorder.toMetrics(form.getClass(), elapsedNanos));
+        }
+    }
+
+    void nodeVisited() {
+        this.nodesVisited++;
+    }
+
+    Object read(FormFieldMetadata field, Object object) {
+        this.reflectiveReads++;
+        return field.accessor().get(object);
+    }
+
+    String format(Configuration config, FormFieldMetadata field, Object value) {
+        final FormFieldFormattedEvent event = FormFieldFormattedEvent.enabled() ? new FormFieldFormattedEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        final long start = System.nanoTime();
+        final String formatted = config.format(field, value);
+        this.formattingNanos += System.nanoTime() - start;
+        this.formatterCalls++;
+        if (event != null && event.shouldCommit()) {
+            event.field = field.name();
+            event.fieldType = field.type();
+            event.length = formatted != null ? formatted.length() : 0;
+            event.commit();
+        }
+        return formatted;
+    }
+
+    /**
+     * Adds the counts of a chunk flattened in parallel.
+     */
+    void add(FlatteningRecorder chunk) {
+        this.nodesVisited += chunk.nodesVisited;
+        this.reflectiveReads += chunk.reflectiveReads;
+        this.formatterCalls += chunk.formatterCalls;
+        this.formattingNanos += chunk.formattingNanos;
+    }
+
+    private ParameterSink sink(ParameterSink sink) {
+        return (name, value) -> {
+            final long start = System.nanoTime();
+            sink.accept(name, value);
+            this.applicationNanos += System.nanoTime() - start;
+            this.parametersEmitted++;
+            // Property editors may format values to null, which are sent as empty parameters
+            this.parameterBytes += TraversalLimits.utf8Length(name) + 1 + (value != null ? TraversalLimits.utf8Length(value) : 0);
+        };
+    }
+
+    private FlatteningMetrics toMetrics(Class<?> formClass, long elapsedNanos) {
+        final long discoveryNanos = Math.max(0, elapsedNanos - this.formattingNanos - this.applicationNanos);
+        return new FlatteningMetrics(formClass, this.nodesVisited, this.reflectiveReads, this.formatterCalls,
+                this.parametersEmitted, discoveryNanos, this.formattingNanos, this.applicationNanos);
+    }
+}
@@ -0,0 +1,245 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * HTTP request parameters of a valid form, flattened once, from which variants of the form are derived as {@link FormDelta}s.
+ * <p>
+ * Variants are compared with the baseline form field by field: unchanged subtrees are skipped, by identity,
+ * or by equality for records and for values written as a single parameter (strings, numbers, dates, enums...).
+ * Only the changed subtrees are flattened again, the parameters of the baseline are reused for everything else.
+ * <p>
+ * The baseline form must not be modified once the baseline is created. Baselines are thread-safe.
+ *
+ * @param <T> the form class
+ * @see MockMvcRequestBuilderUtils#baseline(Object, Configuration)
+ */
+public final class FormBaseline<T> {
+
+    private final T form;
+    private final Configuration config;
+    private final Map<String, String> parameters;
+    // Same parameters, sorted to find the parameters of a subtree by prefix
+    private final NavigableMap<String, String> sortedParameters;
+
+    FormBaseline(T form, Configuration config) {
+        this.form = Objects.requireNonNull(form, "form cannot be null");
+        this.config = Objects.requireNonNull(config, "config cannot be null");
+        this.parameters = Collections.unmodifiableMap(FormFlattener.collectFields(form, config));
+        this.sortedParameters = new TreeMap<>(this.parameters);
+    }
+
+    public T form() {
+        return form;
+    }
+
+    /**
+     * Returns the HTTP request parameters of the baseline form, in the order they are added to requests.
+     */
+    public Map<String, String> parameters() {
+        return parameters;
+    }
+
+    /**
+     * Returns the changes between the parameters of the baseline form and the parameters of the given form.
+     * Forms sharing unchanged objects with the baseline form (built from a copy of it, for instance) are compared fastest.
+     *
+     * @param modified a modified instance of the baseline form, all the baseline parameters are removed if null
+     */
+    public FormDelta diff(T modified) {
+        final DeltaBuilder delta = new DeltaBuilder();
+        if (modified == null || modified.getClass() != this.form.getClass()) {
+            delta.replaceAll(modified);
+        } else if (modified != this.form) {
+            final Set<Object> ancestors = Collections.newSetFromMap(new IdentityHashMap<>());
+            diffFields(this.form, modified, "", ancestors, delta);
+        }
+        return delta.build();
+    }
+
+    /**
+     * Returns the parameters of the baseline form, with the parameters under the given path replaced by the given value.
+     *
+     * @see #with(Map)
+     */
+    public FormDelta with(String path, Object value) {
+        return with(Collections.singletonMap(path, value));
+    }
+
+    /**
+     * Returns the parameters of the baseline form, with the parameters under each given path replaced by the given value.
+     * <p>
+     * A path is a parameter name, such as {@code currentAddress.city} or {@code diplomas[0]}: all the parameters
+     * at or below that path are removed, then the value is flattened at that path. Values of fields of the baseline
+     * form are formatted with the editors and formatters of the field. A null value only removes the parameters.
+     *
+     * @param overrides the values to set, by path
+     */
+    public FormDelta with(Map<String, ?> overrides) {
+        Objects.requireNonNull(overrides, "overrides cannot be null");
+        final DeltaBuilder delta = new DeltaBuilder();
+        overrides.forEach((path, value) -> {
+            Objects.requireNonNull(path, "path cannot be null");
+            if (path.isEmpty()) {
+                throw new IllegalArgumentException("path cannot be empty");
+            }
+            delta.replace(path, fieldAt(path), value, new Object[0]);
+        });
+        return delta.build();
+    }
+
+    private void diffFields(Object baseline, Object modified, String path, Set<Object> ancestors, DeltaBuilder delta) {
+        ancestors.add(modified);
+        for (FormFieldMetadata field : this.config.metadataFor(modified.getClass()).fields()) {
+            final Object before = field.accessor().get(baseline);
+            final Object after = field.accessor().get(modified);
+            if (isUnchanged(before, after)) {
+                continue;
+            }
+            final String fieldPath = path.isEmpty() ? field.name() : path + field.pathSegment();
+            if (isComparableBean(field, before, after) && !ancestors.contains(after)) {
+                diffFields(before, after, fieldPath, ancestors, delta);
+            } else {
+                delta.replace(fieldPath, field, after, ancestors.toArray());
+            }
+        }
+        ancestors.remove(modified);
+    }
+
+    private boolean isUnchanged(Object before, Object after) {
+        if (before == after) {
+            return true;
+        }
+        if (before == null || after == null || before.getClass() != after.getClass()) {
+            return false;
+        }
+        final boolean value = after.getClass().isRecord() || !this.config.metadataFor(after.getClass()).isComplex();
+        return value && after.equals(before);
+    }
+
+    /**
+     * Returns whether the fields of the given values can be compared one by one, or whether the field must be flattened again.
+     */
+    private boolean isComparableBean(FormFieldMetadata field, Object before, Object after) {
+        return field.isComplex() && !field.isIterable() && !field.isMap()
+               && before != null && after != null && before.getClass() == after.getClass()
+               && !this.config.metadataFor(after.getClass()).fields().isEmpty();
+    }
+
+    /**
+     * Returns the field of the baseline form at the given path, or null if the path does not denote a field.
+     */
+    private FormFieldMetadata fieldAt(String path) {
+        Object current = this.form;
+        FormFieldMetadata field = null;
+        for (String segment : path.split("\\.", -1)) {
+            final int keyStart = segment.indexOf('[');
+            field = current != null ? fieldNamed(current.getClass(), keyStart < 0 ? segment : segment.substring(0, keyStart)) : null;
+            if (field == null) {
+                return null;
+            }
+            current = field.accessor().get(current);
+            if (keyStart >= 0) {
+                // The path denotes elements of the field, not the field itself
+                field = null;
+                for (String key : segment.substring(keyStart + 1, segment.length() - 1).split("]\\[", -1)) {
+                    current = elementAt(current, key);
+                }
+            }
+        }
+        return field;
+    }
+
+    private FormFieldMetadata fieldNamed(Class<?> type, String name) {
+        for (FormFieldMetadata field : this.config.metadataFor(type).fields()) {
+            if (field.name().equals(name)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    private static Object elementAt(Object container, String key) {
+        if (container instanceof Map<?, ?> map) {
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (String.valueOf(entry.getKey()).equals(key)) {
+                    return entry.getValue();
+                }
+            }
+            return null;
+        }
+        final int index;
+        try {
+            index = Integer.parseInt(key);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (container instanceof List<?> list) {
+            return index >= 0 && index < list.size() ? list.get(index) : null;
+        } else if (container instanceof Object[] array) {
+            return index >= 0 && index < array.length ? array[index] : null;
+        } else if (container instanceof Iterable<?> iterable) {
+            final Iterator<?> iterator = iterable.iterator();
+            for (int i = 0; i < index && iterator.hasNext(); i++) {
+                iterator.next();
+            }
+            return index >= 0 && iterator.hasNext() ? iterator.next() : null;
+        }
+        return null;
+    }
+
+    /**
+     * Collects the baseline parameters replaced by a delta, and the parameters written in their place.
+     */
+    private final class DeltaBuilder {
+
+        private final Set<String> replaced = new HashSet<>();
+        private final Map<String, String> written = new LinkedHashMap<>();
+
+        void replaceAll(Object modified) {
+            this.replaced.addAll(parameters.keySet());
+            FormFlattener.writeFields(modified, config, this.written::put);
+        }
+
+        void replace(String path, FormFieldMetadata field, Object value, Object[] ancestors) {
+            this.replaced.addAll(subtree(path));
+            FormFieldWrapper.writeField(config, field, path, value, ancestors, this.written::put);
+        }
+
+        /**
+         * Returns the names of the baseline parameters at or below the given path.
+         */
+        private Set<String> subtree(String path) {
+            final Set<String> names = new HashSet<>();
+            if (sortedParameters.containsKey(path)) {
+                names.add(path);
+            }
+            // '/' and '\' immediately follow '.' and '[', so these ranges hold every name starting with "path." or "path["
+            names.addAll(sortedParameters.subMap(path + '.', path + '/').keySet());
+            names.addAll(sortedParameters.subMap(path + '[', path + '\\').keySet());
+            return names;
+        }
+
+        FormDelta build() {
+            final Map<String, String> changed = new LinkedHashMap<>();
+            this.written.forEach((name, value) -> {
+                if (!Objects.equals(value, parameters.get(name))) {
+                    changed.put(name, value);
+                }
+            });
+            final Set<String> removed = new HashSet<>(this.replaced);
+            removed.removeAll(this.written.keySet());
+            return new FormDelta(config, parameters, changed, removed);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.springframework.beans.BeanUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Field;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Reflective metadata of a form class: its type classification and the fields selected by a {@link Configuration},
+ * read directly or through their accessors depending on its {@link PropertyAccess}.
+ * Instances are immutable and cached per class and configuration (see {@link Configuration#metadataFor(Class)}).
+ */
+final class FormClassMetadata {
+
+    private final Class<?> type;
+    private final TypeKind kind;
+    private final List<FormFieldMetadata> fields;
+
+    private FormClassMetadata(Class<?> type, Predicate<Field> fieldPredicate, PropertyAccess propertyAccess,
+                              Function<Class<?>, TypeKind> kinds) {
+        this.type = type;
+        this.kind = kinds.apply(type);
+        if (propertyAccess == PropertyAccess.FIELD) {
+            this.fields = FieldUtils.getAllFieldsList(type)
+                    .stream()
+                    .filter(fieldPredicate)
+                    .map(field -> new FormFieldMetadata(field, kinds))
+                    .toList();
+        } else if (type.isRecord()) {
+            this.fields = recordComponents(type, fieldPredicate, kinds);
+        } else {
+            this.fields = beanProperties(type, fieldPredicate, kinds);
+        }
+    }
+
+    private static List<FormFieldMetadata> recordComponents(Class<?> type, Predicate<Field> fieldPredicate,
+                                                            Function<Class<?>, TypeKind> kinds) {
+        final List<FormFieldMetadata> components = new ArrayList<>();
+        for (RecordComponent component : type.getRecordComponents()) {
+            final Field field = FieldUtils.getDeclaredField(type, component.getName(), true);
+            if (field == null || fieldPredicate.test(field)) {
+                components.add(new FormFieldMetadata(component.getName(), field, component.getAccessor(), null, kinds));
+            }
+        }
+        return List.copyOf(components);
+    }
+
+    private static List<FormFieldMetadata> beanProperties(Class<?> type, Predicate<Field> fieldPredicate,
+                                                          Function<Class<?>, TypeKind> kinds) {
+        final List<Field> declaredFields = FieldUtils.getAllFieldsList(type);
+        final Map<String, Field> fieldsByName = new HashMap<>();
+        // Fields hidden by a subclass field of the same name do not back any property
+        declaredFields.forEach(field -> fieldsByName.putIfAbsent(field.getName(), field));
+
+        final List<FormFieldMetadata> properties = new ArrayList<>();
+        for (PropertyDescriptor property : BeanUtils.getPropertyDescriptors(type)) {
+            final Field field = fieldsByName.get(property.getName());
+            final boolean bindable = property.getWriteMethod() != null
+                                     || property.getReadMethod() != null && kinds.apply(property.getPropertyType()).isComplex();
+            if (property.getReadMethod() == null || "class".equals(property.getName()) || !bindable
+                || field != null && !fieldPredicate.test(field)) {
+                continue;
+            }
+            properties.add(new FormFieldMetadata(property.getName(), field, property.getReadMethod(), property.getWriteMethod(), kinds));
+        }
+        final List<String> declarationOrder = declaredFields.stream().map(Field::getName).toList();
+        properties.sort(Comparator
+                .comparingInt((FormFieldMetadata property) -> declarationIndex(declarationOrder, property.name()))
+                .thenComparing(FormFieldMetadata::name));
+        return List.copyOf(properties);
+    }
+
+    private static int declarationIndex(List<String> declarationOrder, String name) {
+        final int index = declarationOrder.indexOf(name);
+        return index < 0 ? Integer.MAX_VALUE : index;
+    }
+
+    Class<?> type() {
+        return type;
+    }
+
+    TypeKind kind() {
+        return kind;
+    }
+
+    boolean isComplex() {
+        return kind.isComplex();
+    }
+
+    List<FormFieldMetadata> fields() {
+        return fields;
+    }
+
+    /**
+     * Thread-safe cache of {@link FormClassMetadata} for a given field predicate and given scalar types.
+     * Backed by a {@link ClassValue} so that cached entries never prevent form classes from being unloaded.
+     */
+    static final class Cache extends ClassValue<FormClassMetadata> {
+
+        private final Predicate<Field> fieldPredicate;
+        private final PropertyAccess propertyAccess;
+        private final List<Class<?>> scalarTypes;
+
+        Cache(Predicate<Field> fieldPredicate, PropertyAccess propertyAccess, List<Class<?>> scalarTypes) {
+            this.fieldPredicate = fieldPredicate;
+            this.propertyAccess = propertyAccess;
+            this.scalarTypes = List.copyOf(scalarTypes);
+        }
+
+        @Override
+        protected FormClassMetadata computeValue(Class<?> type) {
+            return new FormClassMetadata(type, this.fieldPredicate, this.propertyAccess, this::kindOf);
+        }
+
+        private TypeKind kindOf(Class<?> type) {
+            return this.scalarTypes.isEmpty() ? TypeKind.of(type) : TypeKind.of(type, this.scalarTypes);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.ConstantDynamic;
+import org.springframework.asm.Handle;
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Generates a hidden class per form class that writes the form parameters directly, without walking the
+ * form reflectively: parameter names are constants and field reads are constant {@link MethodHandle}s
+ * the JIT can inline.
+ * <p>
+ * Only bean and scalar fields are compiled. Iterables, maps, nested objects whose runtime class differs from
+ * the declared one and recursive types are delegated to the reflective {@link FormFieldWrapper} at runtime.
+ *
+ * @see Configuration.Builder#compileForms(boolean)
+ */
+final class FormCompiler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FormCompiler.class);
+
+    private static final String OBJECT = Type.getInternalName(Object.class);
+    private static final String PARAMETER_SINK = Type.getInternalName(ParameterSink.class);
+    private static final String METHOD_HANDLE = Type.getInternalName(MethodHandle.class);
+    private static final String COMPILED_FORM = Type.getInternalName(CompiledForm.class);
+    private static final String FLATTEN_DESCRIPTOR = Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(Object.class),
+            Type.getType(Configuration.class), Type.getType(ParameterSink.class));
+    private static final int FORM_LOCAL = 1;
+    private static final int CONFIG_LOCAL = 2;
+    private static final int SINK_LOCAL = 3;
+
+    private static final Handle CLASS_DATA_AT = new Handle(
+            Opcodes.H_INVOKESTATIC,
+            Type.getInternalName(MethodHandles.class),
+            "classDataAt",
+            MethodType.methodType(Object.class, MethodHandles.Lookup.class, String.class, Class.class, int.class).toMethodDescriptorString(),
+            false
+    );
+
+    private static final MethodHandle FORMAT_FIELD_VALUE;
+    private static final MethodHandle WRITE_FIELD;
+
+    static {
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            FORMAT_FIELD_VALUE = lookup.findStatic(FormFieldWrapper.class, "formatFieldValue",
+                    MethodType.methodType(String.class, Configuration.class, FormFieldMetadata.class, Object.class));
+            WRITE_FIELD = lookup.findStatic(FormFieldWrapper.class, "writeField",
+                    MethodType.methodType(void.class, Configuration.class, FormFieldMetadata.class, String.class,
+                            Object.class, Object[].class, ParameterSink.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Configuration config;
+    private final List<Object> classData = new ArrayList<>();
+    private final List<Class<?>> classDataTypes = new ArrayList<>();
+    // Locals holding the beans enclosing the code being generated, passed to the fallback for cycle detection
+    private final Deque<Integer> beanLocals = new ArrayDeque<>();
+    private String className;
+    private MethodVisitor method;
+    private int nextLocal;
+
+    private FormCompiler(Configuration config) {
+        this.config = config;
+    }
+
+    /**
+     * Compiles the given form class, or returns an empty optional if its shape is not supported.
+     */
+    static Optional<CompiledForm> compile(Class<?> formClass, Configuration config) {
+        final FormClassMetadata metadata = config.metadataFor(formClass);
+        if (metadata.kind() != TypeKind.BEAN || metadata.fields().isEmpty()) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(new FormCompiler(config).compile(metadata));
+        } catch (RuntimeException | ReflectiveOperationException e) {
+            LOGGER.debug("Could not compile form class {}, falling back to reflection", formClass.getName(), e);
+            return Optional.empty();
+        }
+    }
+
+    private CompiledForm compile(FormClassMetadata metadata) throws ReflectiveOperationException {
+        final ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS) {
+            @Override
+            protected String getCommonSuperClass(String type1, String type2) {
+                return OBJECT;
+            }
+        };
+        this.className = Type.getInternalName(FormCompiler.class) + "$" + metadata.type().getSimpleName();
+        classWriter.visit(Opcodes.V17, Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, this.className, null, OBJECT, new String[]{COMPILED_FORM});
+
+        final MethodVisitor constructor = classWriter.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, OBJECT, "<init>", "()V", false);
+        constructor.visitInsn(Opcodes.RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+
+        this.method = classWriter.visitMethod(Opcodes.ACC_PUBLIC, "flatten", FLATTEN_DESCRIPTOR, null, null);
+        this.nextLocal = SINK_LOCAL + 1;
+        this.method.visitCode();
+        final Set<Class<?>> ancestors = new HashSet<>();
+        ancestors.add(metadata.type());
+        compileBean(metadata, FORM_LOCAL, "", ancestors);
+        this.method.visitInsn(Opcodes.RETURN);
+        this.method.visitMaxs(0, 0);
+        this.method.visitEnd();
+        compileConstants(classWriter);
+        classWriter.visitEnd();
+
+        final MethodHandles.Lookup lookup = MethodHandles.lookup()
+                .defineHiddenClassWithClassData(classWriter.toByteArray(), List.copyOf(this.classData), true);
+        return (CompiledForm) lookup.lookupClass().getDeclaredConstructor().newInstance();
+    }
+
+    private void compileBean(FormClassMetadata metadata, int beanLocal, String prefix, Set<Class<?>> ancestors) {
+        this.beanLocals.push(beanLocal);
+        for (FormFieldMetadata field : metadata.fields()) {
+            final String path = prefix.isEmpty() ? field.name() : prefix + "." + field.name();
+            final int valueLocal = this.nextLocal++;
+            final Label next = new Label();
+
+            loadClassData(field.accessor().getter(), MethodHandle.class);
+            this.method.visitVarInsn(Opcodes.ALOAD, beanLocal);
+            invokeExact(MethodType.methodType(Object.class, Object.class));
+            this.method.visitVarInsn(Opcodes.ASTORE, valueLocal);
+
+            this.method.visitVarInsn(Opcodes.ALOAD, valueLocal);
+            this.method.visitJumpInsn(Opcodes.IFNULL, next);
+
+            // Byte arrays are skipped by the reflective traversal, outside multipart forms
+            if (field.isIterable() || field.isMap() || field.type().isAssignableFrom(byte[].class)) {
+                compileFallback(field, path, valueLocal);
+            } else if (field.isComplex()) {
+                final FormClassMetadata fieldClassMetadata = inlinableMetadata(field, ancestors);
+                if (fieldClassMetadata != null) {
+                    final Label fallback = new Label();
+                    this.method.visitVarInsn(Opcodes.ALOAD, valueLocal);
+                    this.method.visitMethodInsn(Opcodes.INVOKEVIRTUAL, OBJECT, "getClass", "()Ljava/lang/Class;", false);
+                    loadClassData(fieldClassMetadata.type(), Class.class);
+                    this.method.visitJumpInsn(Opcodes.IF_ACMPNE, fallback);
+
+                    ancestors.add(fieldClassMetadata.type());
+                    compileBean(fieldClassMetadata, valueLocal, path, ancestors);
+                    ancestors.remove(fieldClassMetadata.type());
+                    this.method.visitJumpInsn(Opcodes.GOTO, next);
+
+                    this.method.visitLabel(fallback);
+                }
+                compileFallback(field, path, valueLocal);
+            } else {
+                compileScalar(field, path, valueLocal);
+            }
+
+            this.method.visitLabel(next);
+        }
+        this.beanLocals.pop();
+    }
+
+    /**
+     * Returns the metadata of the field's declared class if the field can be compiled inline, or null.
+     */
+    private FormClassMetadata inlinableMetadata(FormFieldMetadata field, Set<Class<?>> ancestors) {
+        final Class<?> declaredType = field.type();
+        if (!(field.genericType() instanceof Class)
+            || declaredType.isInterface() || declaredType.isArray()
+            || Modifier.isAbstract(declaredType.getModifiers())
+            || ancestors.contains(declaredType)) {
+            return null;
+        }
+        final FormClassMetadata declaredTypeMetadata = this.config.metadataFor(declaredType);
+        return declaredTypeMetadata.isComplex() && !declaredTypeMetadata.fields().isEmpty() ? declaredTypeMetadata : null;
+    }
+
+    private void compileScalar(FormFieldMetadata field, String path, int valueLocal) {
+        this.method.visitVarInsn(Opcodes.ALOAD, SINK_LOCAL);
+        this.method.visitLdcInsn(path);
+        loadClassData(MethodHandles.insertArguments(FORMAT_FIELD_VALUE, 1, field), MethodHandle.class);
+        this.method.visitVarInsn(Opcodes.ALOAD, CONFIG_LOCAL);
+        this.method.visitVarInsn(Opcodes.ALOAD, valueLocal);
+        invokeExact(MethodType.methodType(String.class, Configuration.class, Object.class));
+        this.method.visitMethodInsn(Opcodes.INVOKEINTERFACE, PARAMETER_SINK, "accept",
+                "(Ljava/lang/String;Ljava/lang/String;)V", true);
+    }
+
+    private void compileFallback(FormFieldMetadata field, String path, int valueLocal) {
+        loadClassData(MethodHandles.insertArguments(WRITE_FIELD, 1, field, path), MethodHandle.class);
+        this.method.visitVarInsn(Opcodes.ALOAD, CONFIG_LOCAL);
+        this.method.visitVarInsn(Opcodes.ALOAD, valueLocal);
+        this.method.visitLdcInsn(this.beanLocals.size());
+        this.method.visitTypeInsn(Opcodes.ANEWARRAY, OBJECT);
+        int index = 0;
+        for (int beanLocal : this.beanLocals) {
+            this.method.visitInsn(Opcodes.DUP);
+            this.method.visitLdcInsn(index++);
+            this.method.visitVarInsn(Opcodes.ALOAD, beanLocal);
+            this.method.visitInsn(Opcodes.AASTORE);
+        }
+        this.method.visitVarInsn(Opcodes.ALOAD, SINK_LOCAL);
+        invokeExact(MethodType.methodType(void.class, Configuration.class, Object.class, Object[].class, ParameterSink.class));
+    }
+
+    /**
+     * Loads the given value, stored as a static final field of the generated class.
+     * Class data must not reference the configuration: compiled forms are cached in a {@link ClassValue} of the
+     * configuration, whose values are strongly held by the form class and would keep the configuration reachable.
+     */
+    private void loadClassData(Object value, Class<?> type) {
+        final int index = this.classData.size();
+        this.classData.add(value);
+        this.classDataTypes.add(type);
+        this.method.visitFieldInsn(Opcodes.GETSTATIC, this.className, constantName(index), Type.getDescriptor(type));
+    }
+
+    /**
+     * Declares the static final fields holding the class data, all resolved by the class initializer.
+     * Loading class data lazily from the flatten method instead would leave the constants of branches not taken yet
+     * unresolved, which prevents the JIT from compiling the method.
+     */
+    private void compileConstants(ClassWriter classWriter) {
+        final MethodVisitor initializer = classWriter.visitMethod(Opcodes.ACC_STATIC, "<clinit>", "()V", null, null);
+        initializer.visitCode();
+        for (int index = 0; index < this.classDataTypes.size(); index++) {
+            final String descriptor = Type.getDescriptor(this.classDataTypes.get(index));
+            classWriter.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC | Opcodes.ACC_FINAL, constantName(index), descriptor, null, null)
+                    .visitEnd();
+            initializer.visitLdcInsn(new ConstantDynamic("_", descriptor, CLASS_DATA_AT, index));
+            initializer.visitFieldInsn(Opcodes.PUTSTATIC, this.className, constantName(index), descriptor);
+        }
+        initializer.visitInsn(Opcodes.RETURN);
+        initializer.visitMaxs(0, 0);
+        initializer.visitEnd();
+    }
+
+    private static String constantName(int index) {
+        return "CONSTANT_" + index;
+    }
+
+    private void invokeExact(MethodType methodType) {
+        this.method.visitMethodInsn(Opcodes.INVOKEVIRTUAL, METHOD_HANDLE, "invokeExact", methodType.toMethodDescriptorString(), false);
+    }
+
+    /**
+     * Cache of compiled forms for a given configuration.
+     */
+    static final class Cache extends ClassValue<Optional<CompiledForm>> {
+
+        private final Configuration config;
+
+        Cache(Configuration config) {
+            this.config = config;
+        }
+
+        @Override
+        protected Optional<CompiledForm> computeValue(Class<?> type) {
+            return compile(type, this.config);
+        }
+    }
+}
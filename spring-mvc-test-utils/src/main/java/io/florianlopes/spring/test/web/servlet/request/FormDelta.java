@@ -0,0 +1,106 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * HTTP request parameters of a form, expressed as the changes made to the parameters of a {@link FormBaseline}.
+ * <p>
+ * Requests built from a delta contain the parameters of the baseline, minus the removed ones, with the changed values.
+ * Deltas are immutable.
+ *
+ * @see FormBaseline#diff(Object)
+ * @see FormBaseline#with(Map)
+ */
+public final class FormDelta {
+
+    private final Configuration config;
+    private final Map<String, String> baseline;
+    private final Map<String, String> changed;
+    private final Set<String> removed;
+
+    FormDelta(Configuration config, Map<String, String> baseline, Map<String, String> changed, Set<String> removed) {
+        this.config = config;
+        this.baseline = baseline;
+        this.changed = Collections.unmodifiableMap(changed);
+        this.removed = Collections.unmodifiableSet(removed);
+    }
+
+    /**
+     * Returns the parameters added to the baseline or whose value differs from the baseline, in the order they were found.
+     */
+    public Map<String, String> changed() {
+        return changed;
+    }
+
+    /**
+     * Returns the names of the baseline parameters that are not sent anymore.
+     */
+    public Set<String> removed() {
+        return removed;
+    }
+
+    public boolean isEmpty() {
+        return this.changed.isEmpty() && this.removed.isEmpty();
+    }
+
+    /**
+     * Pushes the complete HTTP request parameters to the given sink: the parameters of the baseline,
+     * in their original order, then the added parameters.
+     */
+    public void write(ParameterSink sink) {
+        Objects.requireNonNull(sink, "sink cannot be null");
+        this.baseline.forEach((name, value) -> {
+            if (!this.removed.contains(name)) {
+                sink.accept(name, this.changed.getOrDefault(name, value));
+            }
+        });
+        this.changed.forEach((name, value) -> {
+            if (!this.baseline.containsKey(name)) {
+                sink.accept(name, value);
+            }
+        });
+    }
+
+    /**
+     * Returns the complete HTTP request parameters, in the order they are added to requests.
+     */
+    public Map<String, String> parameters() {
+        final Map<String, String> parameters = new LinkedHashMap<>();
+        write(parameters::put);
+        return parameters;
+    }
+
+    /**
+     * Post the parameters to the given url.
+     *
+     * @see MockMvcRequestBuilderUtils#postForm(String, Object, Configuration)
+     */
+    public MockHttpServletRequestBuilder postForm(String url) {
+        return MockMvcRequestBuilderUtils.buildMockHttpServletRequestBuilder(url, HttpMethod.POST, this.config, this::write);
+    }
+
+    /**
+     * Put the parameters to the given url.
+     *
+     * @see MockMvcRequestBuilderUtils#putForm(String, Object, Configuration)
+     */
+    public MockHttpServletRequestBuilder putForm(String url) {
+        return MockMvcRequestBuilderUtils.buildMockHttpServletRequestBuilder(url, HttpMethod.PUT, this.config, this::write);
+    }
+
+    /**
+     * Creates a FormRequestPostProcessor adding the parameters to an HTTP request.
+     *
+     * @see MockMvcRequestBuilderUtils#form(Object, Configuration)
+     */
+    public FormRequestPostProcessor form() {
+        return new FormRequestPostProcessor(this.config, this::write);
+    }
+}
@@ -0,0 +1,37 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event emitted for each field value formatted with a property editor, a conversion service
+ * or {@code toString()}, nested in the {@link FormFlattenedEvent} of its form.
+ */
+@Name("io.florianlopes.spring.test.FormFieldFormatted")
+@Label("Form Field Formatted")
+@Category({"Spring MVC Test Utils", "Forms"})
+@Description("Formatting of a form field value into an HTTP request parameter value")
+@StackTrace(false)
+final class FormFieldFormattedEvent extends Event {
+
+    // Only used to check whether the event is enabled, without allocating events
+    private static final FormFieldFormattedEvent ENABLED_CHECK = new FormFieldFormattedEvent();
+
+    @Label("Field")
+    String field;
+
+    @Label("Field Type")
+    Class<?> fieldType;
+
+    @Label("Length")
+    @Description("Length of the formatted value")
+    int length;
+
+    static boolean enabled() {
+        return ENABLED_CHECK.isEnabled();
+    }
+}
@@ -0,0 +1,168 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import org.springframework.core.convert.Property;
+import org.springframework.core.convert.TypeDescriptor;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Reflective metadata of a single form field, resolved once and shared by every traversal of its declaring class.
+ * Depending on the {@link PropertyAccess} of the configuration, the field is read directly, or through its getter
+ * or record component accessor.
+ *
+ * @see FormClassMetadata
+ */
+final class FormFieldMetadata {
+
+    private final String name;
+    private final Field field;
+    private final Method getter;
+    private final Method setter;
+    private final String pathSegment;
+    private final Class<?> type;
+    private final Type genericType;
+    private final Class<?> fieldType;
+    private final boolean iterable;
+    private final boolean map;
+    private final boolean complex;
+
+    private volatile FieldAccessor accessor;
+    // Resolved by the value formatter of the configuration this metadata belongs to
+    private volatile Optional<ScalarFormat> scalarFormat;
+    private volatile Optional<ValueFormatter.FieldConversion> conversion;
+
+    FormFieldMetadata(Field field, Function<Class<?>, TypeKind> kinds) {
+        this(field.getName(), field, null, null, field.getType(), field.getGenericType(), kinds);
+    }
+
+    /**
+     * Creates the metadata of a property read by the given getter.
+     *
+     * @param field  the field backing the property, or null
+     * @param setter the setter of the property, or null
+     */
+    FormFieldMetadata(String name, Field field, Method getter, Method setter, Function<Class<?>, TypeKind> kinds) {
+        this(name, field, getter, setter, getter.getReturnType(), getter.getGenericReturnType(), kinds);
+    }
+
+    private FormFieldMetadata(String name, Field field, Method getter, Method setter, Class<?> type, Type genericType,
+                              Function<Class<?>, TypeKind> kinds) {
+        this.name = name;
+        this.field = field;
+        this.getter = getter;
+        this.setter = setter;
+        this.pathSegment = "." + name;
+        this.type = type;
+        this.genericType = genericType;
+        this.fieldType = resolveFieldType(type, genericType);
+        final TypeKind kind = kinds.apply(type);
+        this.iterable = kind == TypeKind.ITERABLE || kind == TypeKind.ARRAY;
+        this.map = kind == TypeKind.MAP;
+        // Generic fields are classified by their first type argument
+        this.complex = kinds.apply(this.fieldType).isComplex();
+    }
+
+    String name() {
+        return name;
+    }
+
+    /**
+     * Returns the name of this field prefixed with a dot, as appended to the path of its enclosing object.
+     */
+    String pathSegment() {
+        return pathSegment;
+    }
+
+    /**
+     * Returns the declared type of the field, or the return type of its getter.
+     */
+    Class<?> type() {
+        return type;
+    }
+
+    Type genericType() {
+        return genericType;
+    }
+
+    /**
+     * Returns the declared type of the field, or its first type argument when the field is generic.
+     */
+    Class<?> fieldType() {
+        return fieldType;
+    }
+
+    /**
+     * Returns the type descriptor of the field, carrying the annotations of the field and of its accessors.
+     */
+    TypeDescriptor typeDescriptor() {
+        return this.getter == null ?
+                new TypeDescriptor(this.field) :
+                new TypeDescriptor(new Property(this.getter.getDeclaringClass(), this.getter, this.setter, this.name));
+    }
+
+    /**
+     * Returns the accessor of this field, resolved on first use since most cached classes are never read from.
+     */
+    FieldAccessor accessor() {
+        FieldAccessor fieldAccessor = this.accessor;
+        if (fieldAccessor == null) {
+            fieldAccessor = this.getter == null ? FieldAccessor.of(this.field) : FieldAccessor.of(this.name, this.getter);
+            this.accessor = fieldAccessor;
+        }
+        return fieldAccessor;
+    }
+
+    /**
+     * Returns the format of the values of this field, empty if they are formatted by the value formatter,
+     * or null if not resolved yet.
+     */
+    Optional<ScalarFormat> scalarFormat() {
+        return scalarFormat;
+    }
+
+    void scalarFormat(Optional<ScalarFormat> scalarFormat) {
+        this.scalarFormat = scalarFormat;
+    }
+
+    /**
+     * Returns the conversion of the values of this field, empty if no conversion service converts them,
+     * or null if not resolved yet.
+     */
+    Optional<ValueFormatter.FieldConversion> conversion() {
+        return conversion;
+    }
+
+    void conversion(Optional<ValueFormatter.FieldConversion> conversion) {
+        this.conversion = conversion;
+    }
+
+    boolean isIterable() {
+        return iterable;
+    }
+
+    boolean isMap() {
+        return map;
+    }
+
+    boolean isComplex() {
+        return complex;
+    }
+
+    private static Class<?> resolveFieldType(Class<?> type, Type genericType) {
+        if (genericType instanceof ParameterizedType parameterizedType) {
+            final Type typeArgument = parameterizedType.getActualTypeArguments()[0];
+            if (typeArgument instanceof Class<?> typeArgumentClass) {
+                return typeArgumentClass;
+            } else if (typeArgument instanceof ParameterizedType parameterizedTypeArgument) {
+                return (Class<?>) parameterizedTypeArgument.getRawType();
+            }
+            return Object.class;
+        }
+        return type;
+    }
+}
@@ -1,246 +1,652 @@
 package io.florianlopes.spring.test.web.servlet.request;
 
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.reflect.FieldUtils;
-import org.springframework.test.util.ReflectionTestUtils;
-import org.springframework.util.ClassUtils;
-import org.springframework.util.CollectionUtils;
-
-import java.beans.PropertyEditor;
-import java.lang.reflect.Field;
-import java.lang.reflect.ParameterizedType;
-import java.math.BigDecimal;
-import java.math.BigInteger;
-import java.time.temporal.Temporal;
-import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.StreamSupport;
-
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Flattens a form object into HTTP request parameters.
+ * <p>
+ * The form is walked depth-first with an explicit stack, so that deeply nested forms cannot overflow the thread stack.
+ * Parameter names are built incrementally in a single buffer shared by the whole traversal, including the index and
+ * key segments of iterables, arrays and maps nested in one another, such as {@code grid[0][1]} or {@code labels[en][title]}.
+ * Objects being traversed are tracked by identity to detect cycles (see {@link CyclePolicy}),
+ * and objects reachable from several paths are only traversed once: their parameters are replayed with the new prefix.
+ * Parameters of immutable objects are replayed the same way across traversals when memoized (see {@link Configuration.Builder#memoize(int)}).
+ * <p>
+ * Large iterables, arrays and maps can be split in chunks flattened in parallel (see {@link Configuration#parallelThreshold()}):
+ * chunks are written to the sink in order, from the calling thread.
+ */
 class FormFieldWrapper {
 
-    private final Field rawField;
-    private final FormFieldWrapper parent;
-
-    private final Object targetObject;
-    private final String indexOrPosition;
-
+    private final Object form;
     private final Configuration configuration;
 
-    private final List<FormFieldWrapper> children;
+    FormFieldWrapper(Object form, Configuration config) {
+        this.form = form;
+        this.configuration = config;
+    }
 
-    FormFieldWrapper(Field rawField, FormFieldWrapper parent, Object targetObject,
-                     String indexOrPosition, Configuration configuration) {
-        this.rawField = rawField;
-        this.parent = parent;
-        this.targetObject = targetObject;
-        this.indexOrPosition = indexOrPosition;
-        this.configuration = configuration;
+    Map<String, String> collectFields() {
+        final Map<String, String> fields = new LinkedHashMap<>();
+        writeFields(fields::put);
+        return fields;
+    }
 
-        if (this.targetObject != null) {
-            this.children = discoverChildren();
-        } else {
-            this.children = Collections.emptyList();
+    /**
+     * Pushes the fields of the form to the given sink, without materializing intermediate maps.
+     */
+    void writeFields(ParameterSink sink) {
+        if (this.form != null) {
+            new Traversal(this.configuration, sink, null, StringUtils.EMPTY, FlatteningRecorder.current(this.configuration))
+                    .run(this.form, null, false);
         }
     }
 
-    FormFieldWrapper(Object form, Configuration config) {
-        this(null, null, form, null, config);
+    /**
+     * Pushes the fields of the form to the given sinks: file-like values (see {@link FormMultipartFile#isPart(Object)})
+     * to the part sink, and other values to the parameter sink.
+     * Objects reachable from several paths are traversed again, as their parts are not recorded to be replayed.
+     */
+    void writeFields(ParameterSink sink, BiConsumer<String, MultipartFile> partSink) {
+        if (this.form == null) {
+            return;
+        }
+        if (FlatteningRecorder.isEnabled(this.configuration)) {
+            FlatteningRecorder.record(this.configuration, this.form, sink, recordedSink ->
+                    new Traversal(this.configuration, recordedSink, partSink, StringUtils.EMPTY, FlatteningRecorder.current(this.configuration))
+                            .run(this.form, null, false));
+        } else {
+            new Traversal(this.configuration, sink, partSink, StringUtils.EMPTY, null).run(this.form, null, false);
+        }
     }
 
-    private FormFieldWrapper(Field rawField, FormFieldWrapper parent, Object targetObject) {
-        this(rawField, parent, targetObject, null, null);
+    /**
+     * Pushes the parameters of a single field value to the given sink, as if it was reached from the given ancestors.
+     *
+     * @param field     the field holding the value, or null if the value is an iterable or map element
+     * @param path      the parameter name of the field
+     * @param ancestors the objects enclosing the field, used to detect cycles
+     */
+    static void writeField(Configuration configuration, FormFieldMetadata field, String path, Object value,
+                           Object[] ancestors, ParameterSink sink) {
+        final Traversal traversal = new Traversal(configuration, sink, null, path, FlatteningRecorder.current(configuration));
+        Collections.addAll(traversal.inProgress, ancestors);
+        traversal.run(value, field, false);
     }
 
-    private FormFieldWrapper(FormFieldWrapper parent, Object targetObject, String indexOrPosition) {
-        this(null, parent, targetObject, indexOrPosition, null);
+    static String formatFieldValue(Configuration configuration, FormFieldMetadata field, Object value) {
+        final FlatteningRecorder recorder = FlatteningRecorder.current(configuration);
+        return recorder != null ? recorder.format(configuration, field, value) : configuration.format(field, value);
     }
 
-    private static FormFieldWrapper newSimpleFieldWrapper(Field rawField, FormFieldWrapper parent, Object targetObject) {
-        return new FormFieldWrapper(rawField, parent, targetObject);
-    }
+    private static final class Traversal {
+
+        private static final ParameterSink NO_SINK = (name, value) -> {
+        };
+        private static final int MIN_CHUNK_SIZE = 256;
+
+        private final Configuration configuration;
+        private final ParameterSink sink;
+        // Receives file-like values in multipart mode, null otherwise
+        private final BiConsumer<String, MultipartFile> partSink;
+        // Path of the node being visited, truncated back to the path of its frame before visiting the next one
+        private final StringBuilder path;
+        // Records the metrics of the flattening when the configuration has a listener, null otherwise
+        private final FlatteningRecorder recorder;
+        // Limits of the traversal, null if it is unlimited
+        private final TraversalLimits limits;
+        // Depth of the nodes visited when the stack is empty, only computed when the depth is limited
+        private int rootDepth;
+
+        private final Deque<Frame> stack = new ArrayDeque<>();
+        private final Set<Object> inProgress = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final Map<Object, Frame> completed = new IdentityHashMap<>();
+
+        // Parameters written so far, replayed when an already traversed object is reached again
+        private final List<String> names = new ArrayList<>();
+        private final List<String> values = new ArrayList<>();
+        private boolean truncated;
+        // Whether a limit on parameters stopped the traversal
+        private boolean stopped;
+        private long valueBytes;
+
+        private Traversal(Configuration configuration, ParameterSink sink, BiConsumer<String, MultipartFile> partSink, String rootPath,
+                          FlatteningRecorder recorder) {
+            this.configuration = configuration;
+            this.sink = sink;
+            this.partSink = partSink;
+            this.path = new StringBuilder(Math.max(64, rootPath.length() * 2)).append(rootPath);
+            this.recorder = recorder;
+            this.limits = configuration.limits();
+            this.rootDepth = this.limits != null && this.limits.limitsDepth() ? TraversalLimits.depthOf(rootPath) : 0;
+        }
 
-    private static FormFieldWrapper newMapFieldWrapper(FormFieldWrapper parent, Object targetObject, String index) {
-        return new FormFieldWrapper(parent, targetObject, index);
-    }
+        private void run(Object root, FormFieldMetadata field, boolean mapValue) {
+            visit(root, field, mapValue);
+            while (!this.stack.isEmpty() && !this.stopped) {
+                final Frame frame = this.stack.peek();
+                if (!frame.visitNext(this)) {
+                    this.stack.pop();
+                    this.inProgress.remove(frame.object);
+                    if (!frame.truncated) {
+                        frame.end = this.names.size();
+                        this.completed.put(frame.object, frame);
+                        memoize(frame);
+                    }
+                }
+            }
+        }
 
-    private static FormFieldWrapper newIterableFieldWrapper(FormFieldWrapper parent, Object targetObject, String position) {
-        return new FormFieldWrapper(parent, targetObject, position);
-    }
+        /**
+         * Visits the node at the current path: writes it if it is a leaf, or pushes a frame to visit its children.
+         *
+         * @param field    the field holding the value, or null for the form itself and for iterable or map elements
+         * @param mapValue whether the value is a map value, in which case null is written as an empty parameter
+         */
+        private void visit(Object value, FormFieldMetadata field, boolean mapValue) {
+            if (value == null && !mapValue || isBeyondLimits()) {
+                return;
+            }
+            if (value == null) {
+                write(this.path.toString(), StringUtils.EMPTY);
+                return;
+            }
+            if (this.recorder != null) {
+                this.recorder.nodeVisited();
+            }
+            if (this.partSink != null && FormMultipartFile.isPart(value)) {
+                final String name = this.path.toString();
+                this.partSink.accept(name, FormMultipartFile.of(name, value));
+                return;
+            }
+            if (value instanceof byte[]) {
+                // Binary content has no meaningful parameter value, it is only sent as a file part by multipart forms
+                return;
+            }
+            if (this.partSink == null && field != null && (field.isIterable() || field.isMap())
+                && flattensInParallel(sizeOf(value)) && PrimitiveSequence.of(value.getClass()) == null
+                && !this.inProgress.contains(value)) {
+                writeInParallel(value, field.isMap());
+                return;
+            }
 
-    Map<String, String> collectFields() {
-        final Map<String, String> fields = new HashMap<>();
-        if (hasChildren()) {
-            fields.putAll(collectChildrenFields());
-        } else {
-            if (this.targetObject != null || this.parent != null && this.parent.isMap()) {
-                fields.put(getNestedPath(), stringRepresentation());
+            final Frame frame = newFrame(value, field);
+            if (frame == null) {
+                write(this.path.toString(), field != null ? format(field, value) : String.valueOf(value));
+            } else if (this.inProgress.contains(value)) {
+                onCycle();
+            } else if (replaysCompleted() && this.completed.containsKey(value)) {
+                replay(this.completed.get(value));
+            } else if (!replayMemoized(frame)) {
+                frame.start = this.names.size();
+                this.inProgress.add(value);
+                this.stack.push(frame);
             }
         }
-        return fields;
-    }
 
-    private Map<String, String> collectChildrenFields() {
-        final Map<String, String> fields = new HashMap<>();
-        this.children.forEach(child -> {
-            if (child.hasChildren()) {
-                child.getChildren().forEach(
-                        grandChild -> fields.putAll(grandChild.collectFields())
-                );
-            } else if (child.getTargetObject() != null) {
-                fields.put(child.getNestedPath(), child.stringRepresentation());
-            }
-        });
-        return fields;
-    }
+        /**
+         * Visits the value of the given field of the given object. Primitives, strings and enums are written
+         * without boxing them nor looking up their property editor, unless the flattening is recorded.
+         */
+        private void visitField(FormFieldMetadata field, Object object) {
+            final Optional<ScalarFormat> scalarFormat = this.recorder == null ? this.configuration.scalarFormatFor(field) : Optional.empty();
+            if (scalarFormat.isEmpty()) {
+                visit(read(field, object), field, false);
+                return;
+            }
+            final String value = scalarFormat.get().read(field.accessor(), object);
+            if (value != null && !isBeyondLimits()) {
+                write(this.path.toString(), value);
+            }
+        }
 
-    private List<FormFieldWrapper> discoverChildren() {
-        final List<FormFieldWrapper> children = new ArrayList<>();
-
-        if (isIterable()) {
-            final Iterable<?> iterableTargetObject =
-                    Iterable.class.isAssignableFrom(this.rawField.getType()) ?
-                            (Iterable<?>) targetObject :
-                            CollectionUtils.arrayToList(targetObject);
-
-            final AtomicInteger position = new AtomicInteger(0);
-            StreamSupport.stream(iterableTargetObject.spliterator(), false)
-                    .forEach(object -> children.add(
-                            newIterableFieldWrapper(
-                                    this,
-                                    object,
-                                    String.valueOf(position.getAndIncrement())
-                            )
-                    ));
-        } else if (isMap()) {
-            final Map<?, ?> mapTargetObject = (Map<?, ?>) this.targetObject;
-            mapTargetObject.forEach((key, value) -> children.add(
-                    newMapFieldWrapper(
-                            this,
-                            value,
-                            String.valueOf(key)
-                    )
-            ));
-        } else if (isComplex()) {
-            FieldUtils.getAllFieldsList(targetObject.getClass())
-                    .stream()
-                    .filter(getConfiguration().fieldPredicate())
-                    .forEach(field -> children.add(
-                            newSimpleFieldWrapper(
-                                    field,
-                                    this,
-                                    ReflectionTestUtils.getField(targetObject, field.getName())
-                            )
-                    ));
-        }
-
-        return children;
-    }
+        /**
+         * Returns whether the node at the current path must not be visited, because the traversal was stopped
+         * or the node is deeper than the maximum depth.
+         */
+        private boolean isBeyondLimits() {
+            return this.stopped || this.limits != null && this.limits.limitsDepth()
+                                   && !this.limits.allowsDepth(this.rootDepth + this.stack.size(), this.path);
+        }
+
+        /**
+         * Creates the frame visiting the children of the given value, or returns null if the value is a leaf.
+         */
+        private Frame newFrame(Object value, FormFieldMetadata field) {
+            final int pathLength = this.path.length();
+            // Elements of iterables, arrays and maps are classified by their runtime class, unlike the form itself
+            final FormClassMetadata elementMetadata = field == null && pathLength > 0 ? this.configuration.metadataFor(value.getClass()) : null;
+            final TypeKind elementKind = elementMetadata != null ? elementMetadata.kind() : null;
+            if (field != null ? field.isIterable() : elementKind == TypeKind.ITERABLE || elementKind == TypeKind.ARRAY) {
+                final PrimitiveSequence sequence = PrimitiveSequence.of(value.getClass());
+                if (sequence != null) {
+                    return newSequenceFrame(value, pathLength, sequence);
+                }
+                final Iterator<?> iterator = value instanceof Iterable<?> iterable ?
+                        iterable.iterator() :
+                        Arrays.asList((Object[]) value).iterator();
+                return iterator.hasNext() ? limit(new IterableFrame(value, pathLength, iterator), sizeOf(value)) : null;
+            } else if (field != null ? field.isMap() : elementKind == TypeKind.MAP) {
+                final Iterator<? extends Map.Entry<?, ?>> iterator = ((Map<?, ?>) value).entrySet().iterator();
+                return iterator.hasNext() ? limit(new MapFrame(value, pathLength, iterator), sizeOf(value)) : null;
+            }
+
+            if (field != null && !field.isComplex()) {
+                return null;
+            }
+            final FormClassMetadata valueMetadata = elementMetadata != null ? elementMetadata : this.configuration.metadataFor(value.getClass());
+            final boolean complex = field != null || valueMetadata.isComplex();
+            return complex && !valueMetadata.fields().isEmpty() ? new BeanFrame(value, pathLength, valueMetadata.fields()) : null;
+        }
+
+        private Frame newSequenceFrame(Object value, int pathLength, PrimitiveSequence sequence) {
+            final int size = sequence.size(value);
+            if (this.limits == null) {
+                return new SequenceFrame(value, pathLength, sequence, size, size, false);
+            }
+            return new SequenceFrame(value, pathLength, sequence, size, this.limits.visitedElements(size, this.path),
+                    this.limits.samples(size));
+        }
+
+        /**
+         * Writes an element of a primitive sequence at the current path.
+         */
+        private void writeElement(String value) {
+            if (isBeyondLimits()) {
+                return;
+            }
+            if (this.recorder != null) {
+                this.recorder.nodeVisited();
+            }
+            write(this.path.toString(), value);
+        }
+
+        /**
+         * Applies the collection size limit, if any, to the given frame visiting a collection of the given size.
+         */
+        private Frame limit(ElementsFrame frame, int size) {
+            if (this.limits != null) {
+                frame.limit = this.limits.visitedElements(size, this.path);
+                frame.size = this.limits.samples(size) ? size : -1;
+            }
+            return frame;
+        }
+
+        /**
+         * Handles an element found after the last element visited in the collection of the given frame.
+         */
+        private void onExtraElement(Frame frame) {
+            this.path.setLength(frame.pathLength);
+            this.limits.onExtraElement(this.path);
+        }
+
+        private boolean flattensInParallel(int size) {
+            return this.configuration.flattensInParallel(size)
+                   && (this.limits == null || this.limits.visitedElements(size, this.path) == size);
+        }
+
+        /**
+         * Returns whether the parameters of objects already traversed are replayed when they are reached again.
+         * They are not in multipart mode, as parts are not recorded, nor when the depth is limited,
+         * as the same object can be reached at different depths.
+         */
+        private boolean replaysCompleted() {
+            return this.partSink == null && (this.limits == null || !this.limits.limitsDepth());
+        }
+
+        private void onCycle() {
+            if (this.configuration.cyclePolicy() == CyclePolicy.FAIL) {
+                throw new IllegalStateException("Cycle detected in form object graph at '" + this.path + "'");
+            }
+            truncate();
+        }
+
+        private void truncate() {
+            // Truncated objects are not replayed, as they may be complete when reached from another path
+            this.stack.forEach(frame -> frame.truncated = true);
+            this.truncated = true;
+        }
+
+        /**
+         * Flattens the elements of the given container in chunks on the configured fork-join pool,
+         * then writes the parameters of each chunk in order.
+         */
+        private void writeInParallel(Object container, boolean map) {
+            final Object[] elements = map ?
+                    ((Map<?, ?>) container).entrySet().toArray() :
+                    container instanceof Collection<?> collection ? collection.toArray() : ((Object[]) container).clone();
+            final String basePath = this.path.toString();
+            final Object[] ancestors = Stream.concat(this.inProgress.stream(), Stream.of(container)).toArray();
+            final ForkJoinPool pool = this.configuration.forkJoinPool();
+            final int chunkSize = Math.max(MIN_CHUNK_SIZE, elements.length / (pool.getParallelism() * 4) + 1);
+
+            final List<ForkJoinTask<Traversal>> chunks = new ArrayList<>();
+            for (int start = 0; start < elements.length; start += chunkSize) {
+                final int from = start;
+                final int to = Math.min(start + chunkSize, elements.length);
+                chunks.add(pool.submit(() -> flattenChunk(elements, from, to, map, basePath, ancestors)));
+            }
+            for (ForkJoinTask<Traversal> chunk : chunks) {
+                final Traversal chunkTraversal = chunk.join();
+                if (this.recorder != null) {
+                    this.recorder.add(chunkTraversal.recorder);
+                }
+                for (int i = 0; i < chunkTraversal.names.size(); i++) {
+                    write(chunkTraversal.names.get(i), chunkTraversal.values.get(i));
+                }
+                if (chunkTraversal.truncated) {
+                    truncate();
+                }
+            }
+        }
 
-    private boolean isComplex() {
-        if (this.rawField != null) {
-            final Class<?> fieldType = getFieldType();
-            if (fieldType.isAssignableFrom(BigInteger.class) || fieldType.isAssignableFrom(BigDecimal.class)) {
+        private Traversal flattenChunk(Object[] elements, int from, int to, boolean map, String basePath, Object[] ancestors) {
+            final Traversal traversal = new Traversal(this.configuration, NO_SINK, null, basePath,
+                    this.recorder != null ? new FlatteningRecorder() : null);
+            // Elements are one level deeper than their container
+            traversal.rootDepth++;
+            Collections.addAll(traversal.inProgress, ancestors);
+            for (int i = from; i < to && !traversal.stopped; i++) {
+                traversal.path.setLength(basePath.length());
+                if (map) {
+                    final Map.Entry<?, ?> entry = (Map.Entry<?, ?>) elements[i];
+                    traversal.path.append('[').append(entry.getKey()).append(']');
+                    traversal.run(entry.getValue(), null, true);
+                } else {
+                    traversal.path.append('[').append(i).append(']');
+                    traversal.run(elements[i], null, false);
+                }
+            }
+            return traversal;
+        }
+
+        /**
+         * Returns the number of elements of the given container, or -1 if it cannot be known without iterating it.
+         */
+        private static int sizeOf(Object container) {
+            if (container instanceof Collection<?> collection) {
+                return collection.size();
+            } else if (container instanceof Map<?, ?> map) {
+                return map.size();
+            } else if (container instanceof Object[] array) {
+                return array.length;
+            }
+            return -1;
+        }
+
+        /**
+         * Returns whether the parameters of the object of the given frame are memoized,
+         * which they are not when objects already traversed are not replayed.
+         */
+        private boolean isMemoized(Frame frame) {
+            return replaysCompleted() && frame instanceof BeanFrame && this.configuration.memoizes(frame.object.getClass());
+        }
+
+        /**
+         * Writes the memoized parameters of the object of the given frame, if any, with the current path as prefix.
+         */
+        private boolean replayMemoized(Frame frame) {
+            if (!isMemoized(frame)) {
                 return false;
-            } else {
-                return isComplexType(fieldType);
             }
-        } else {
-            return isComplexType(this.targetObject.getClass());
+            final FlattenedFormCache.Parameters parameters = this.configuration.flattenedForms().get(frame.object);
+            if (parameters == null) {
+                return false;
+            }
+            final int pathLength = this.path.length();
+            if (pathLength == 0) {
+                for (int i = 0; i < parameters.rootNames().length; i++) {
+                    write(parameters.rootNames()[i], parameters.values()[i]);
+                }
+                return true;
+            }
+            final String[] names = parameters.names();
+            for (int i = 0; i < names.length; i++) {
+                this.path.append(names[i]);
+                write(this.path.toString(), parameters.values()[i]);
+                this.path.setLength(pathLength);
+            }
+            return true;
         }
-    }
 
-    private boolean isComplexType(Class<?> type) {
-        if (type.getComponentType() != null) {
-            return isComplexType(type.getComponentType());
+        private void memoize(Frame frame) {
+            if (!isMemoized(frame)) {
+                return;
+            }
+            final String[] relativeNames = new String[frame.end - frame.start];
+            final String[] relativeValues = new String[relativeNames.length];
+            for (int i = 0; i < relativeNames.length; i++) {
+                final String name = this.names.get(frame.start + i);
+                relativeNames[i] = frame.pathLength == 0 ? "." + name : name.substring(frame.pathLength);
+                relativeValues[i] = this.values.get(frame.start + i);
+            }
+            this.configuration.flattenedForms().put(frame.object, new FlattenedFormCache.Parameters(relativeNames, relativeValues));
         }
-        return !ClassUtils.isPrimitiveOrWrapper(type)
-               && !String.class.isAssignableFrom(type)
-               && !Date.class.isAssignableFrom(type)
-               && !Temporal.class.isAssignableFrom(type)
-               && type.getSuperclass() != null
-               && !Enum.class.isAssignableFrom(type.getSuperclass());
-    }
 
-    private boolean isGeneric() {
-        return this.rawField != null && !(this.rawField.getGenericType() instanceof Class);
-    }
+        private void replay(Frame frame) {
+            final int pathLength = this.path.length();
+            for (int i = frame.start; i < frame.end; i++) {
+                final String name = this.names.get(i);
+                this.path.append(name, frame.pathLength, name.length());
+                write(this.path.toString(), this.values.get(i));
+                this.path.setLength(pathLength);
+            }
+        }
 
-    private boolean isMap() {
-        return this.rawField != null && Map.class.isAssignableFrom(this.rawField.getType());
-    }
+        /**
+         * Moves the current path to the given child field of the frame.
+         */
+        private void enterField(Frame frame, FormFieldMetadata field) {
+            this.path.setLength(frame.pathLength);
+            final String segment = field.pathSegment();
+            this.path.append(segment, frame.pathLength == 0 ? 1 : 0, segment.length());
+        }
 
-    private boolean isIterable() {
-        return this.rawField != null &&
-               (Iterable.class.isAssignableFrom(this.rawField.getType()) || Object[].class.isAssignableFrom(this.rawField.getType()));
-    }
+        /**
+         * Moves the current path to the given element of the frame.
+         */
+        private void enterElement(Frame frame, int index) {
+            this.path.setLength(frame.pathLength);
+            this.path.append('[').append(index).append(']');
+        }
 
-    private Object getTargetObject() {
-        return targetObject;
-    }
+        /**
+         * Moves the current path to the given entry of the frame.
+         */
+        private void enterElement(Frame frame, Object key) {
+            this.path.setLength(frame.pathLength);
+            this.path.append('[').append(key).append(']');
+        }
 
-    private List<FormFieldWrapper> getChildren() {
-        return this.children;
-    }
+        private Object read(FormFieldMetadata field, Object object) {
+            return this.recorder != null ? this.recorder.read(field, object) : field.accessor().get(object);
+        }
 
-    private FormFieldWrapper getParent() {
-        return parent;
-    }
+        private String format(FormFieldMetadata field, Object value) {
+            return this.recorder != null ?
+                    this.recorder.format(this.configuration, field, value) :
+                    this.configuration.format(field, value);
+        }
 
-    private Configuration getConfiguration() {
-        if (this.configuration == null && this.parent != null) {
-            return this.parent.getConfiguration();
+        private void write(String name, String value) {
+            if (this.stopped || this.limits != null && !allowsParameter(name, value)) {
+                return;
+            }
+            this.names.add(name);
+            this.values.add(value);
+            this.sink.accept(name, value);
         }
-        return this.configuration;
-    }
 
-    private String getIndexOrPosition() {
-        return indexOrPosition;
+        private boolean allowsParameter(String name, String value) {
+            if (this.limits.limitsValueBytes() && value != null) {
+                this.valueBytes += TraversalLimits.utf8Length(value);
+            }
+            if (this.limits.allowsParameter(this.names.size(), this.valueBytes, name)) {
+                return true;
+            }
+            this.stopped = true;
+            truncate();
+            return false;
+        }
     }
 
-    private Class<?> getFieldType() {
-        if (isGeneric()) {
-            final ParameterizedType genericType = (ParameterizedType) this.rawField.getGenericType();
-            return (Class<?>) genericType.getActualTypeArguments()[0];
-        } else {
-            return this.rawField.getType();
+    private abstract static class Frame {
+
+        final Object object;
+        final int pathLength;
+        int start;
+        int end;
+        boolean truncated;
+
+        Frame(Object object, int pathLength) {
+            this.object = object;
+            this.pathLength = pathLength;
         }
+
+        /**
+         * Visits the next child of this frame, or returns false when all children have been visited.
+         */
+        abstract boolean visitNext(Traversal traversal);
     }
 
-    private String getPath() {
-        return this.rawField != null ? this.rawField.getName() : StringUtils.EMPTY;
+    private static final class BeanFrame extends Frame {
+
+        private final List<FormFieldMetadata> fields;
+        private int index;
+
+        BeanFrame(Object object, int pathLength, List<FormFieldMetadata> fields) {
+            super(object, pathLength);
+            this.fields = fields;
+        }
+
+        @Override
+        boolean visitNext(Traversal traversal) {
+            if (this.index >= this.fields.size()) {
+                return false;
+            }
+            final FormFieldMetadata field = this.fields.get(this.index++);
+            traversal.enterField(this, field);
+            traversal.visitField(field, this.object);
+            return true;
+        }
     }
 
-    private String getNestedPath() {
-        final String path = getPath();
-        if (this.parent != null) {
-            if (this.parent.hasIndexOrPosition()) {
-                return String.format("%s[%s].%s", this.parent.getParent().getNestedPath(), this.parent.getIndexOrPosition(), path);
-            } else if (StringUtils.isNotEmpty(this.parent.getNestedPath())) {
-                if (this.hasIndexOrPosition()) {
-                    return String.format("%s[%s]%s", this.parent.getNestedPath(), this.getIndexOrPosition(), path);
-                } else {
-                    return String.format("%s.%s", this.parent.getNestedPath(), path);
+    /**
+     * Frame visiting the elements of an iterable, an array or a map, at most {@link #limit} of them.
+     */
+    private abstract static class ElementsFrame extends Frame {
+
+        private final Iterator<?> iterator;
+        // Number of elements to visit, and size of the collection when they are sampled, -1 otherwise
+        int limit = Integer.MAX_VALUE;
+        int size = -1;
+        private int visited;
+        private int position;
+
+        ElementsFrame(Object object, int pathLength, Iterator<?> iterator) {
+            super(object, pathLength);
+            this.iterator = iterator;
+        }
+
+        @Override
+        boolean visitNext(Traversal traversal) {
+            if (!this.iterator.hasNext()) {
+                return false;
+            }
+            if (this.visited == this.limit) {
+                traversal.onExtraElement(this);
+                return false;
+            }
+            if (this.size >= 0) {
+                // Skips the elements between evenly spread samples
+                final int sample = (int) ((long) this.visited * this.size / this.limit);
+                while (this.position < sample) {
+                    this.iterator.next();
+                    this.position++;
                 }
             }
+            this.visited++;
+            visitElement(traversal, this.position++, this.iterator.next());
+            return true;
         }
-        return path;
+
+        abstract void visitElement(Traversal traversal, int index, Object element);
     }
 
-    private String stringRepresentation() {
-        if (this.rawField != null && getConfiguration().hasPropertyEditorFor(this.getFieldType())) {
-            final PropertyEditor propertyEditor = getConfiguration().propertyEditorFor(this.getFieldType());
-            propertyEditor.setValue(this.targetObject);
-            return propertyEditor.getAsText();
-        } else {
-            return this.targetObject != null ? String.valueOf(this.targetObject) : StringUtils.EMPTY;
+    /**
+     * Frame writing the elements of a primitive array or list, by index and without boxing them.
+     */
+    private static final class SequenceFrame extends Frame {
+
+        private final PrimitiveSequence sequence;
+        private final int size;
+        private final int limit;
+        private final boolean sampled;
+        private int visited;
+
+        SequenceFrame(Object object, int pathLength, PrimitiveSequence sequence, int size, int limit, boolean sampled) {
+            super(object, pathLength);
+            this.sequence = sequence;
+            this.size = size;
+            this.limit = Math.min(size, limit);
+            this.sampled = sampled;
+        }
+
+        @Override
+        boolean visitNext(Traversal traversal) {
+            if (this.visited == this.limit) {
+                return false;
+            }
+            final int index = this.sampled ? (int) ((long) this.visited * this.size / this.limit) : this.visited;
+            this.visited++;
+            traversal.enterElement(this, index);
+            traversal.writeElement(this.sequence.format(this.object, index));
+            return true;
         }
     }
 
-    private boolean hasIndexOrPosition() {
-        return StringUtils.isNotEmpty(this.indexOrPosition);
+    private static final class IterableFrame extends ElementsFrame {
+
+        IterableFrame(Object object, int pathLength, Iterator<?> iterator) {
+            super(object, pathLength, iterator);
+        }
+
+        @Override
+        void visitElement(Traversal traversal, int index, Object element) {
+            traversal.enterElement(this, index);
+            traversal.visit(element, null, false);
+        }
     }
 
-    private boolean hasChildren() {
-        return !this.children.isEmpty();
+    private static final class MapFrame extends ElementsFrame {
+
+        MapFrame(Object object, int pathLength, Iterator<? extends Map.Entry<?, ?>> iterator) {
+            super(object, pathLength, iterator);
+        }
+
+        @Override
+        void visitElement(Traversal traversal, int index, Object element) {
+            final Map.Entry<?, ?> entry = (Map.Entry<?, ?>) element;
+            traversal.enterElement(this, entry.getKey());
+            traversal.visit(entry.getValue(), null, true);
+        }
     }
 }
@@ -0,0 +1,42 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event emitted for each form flattened into HTTP request parameters, lasting the whole flattening.
+ */
+@Name("io.florianlopes.spring.test.FormFlattened")
+@Label("Form Flattened")
+@Category({"Spring MVC Test Utils", "Forms"})
+@Description("Flattening of a form object into HTTP request parameters")
+@StackTrace(false)
+final class FormFlattenedEvent extends Event {
+
+    // Only used to check whether the event is enabled, without allocating events
+    private static final FormFlattenedEvent ENABLED_CHECK = new FormFlattenedEvent();
+
+    @Label("Form Class")
+    Class<?> formClass;
+
+    @Label("Nodes")
+    @Description("Non-null objects and values visited by the reflective traversal")
+    long nodes;
+
+    @Label("Parameters")
+    long parameters;
+
+    @Label("Bytes")
+    @Description("Size of the parameters as name=value pairs, before URL encoding")
+    @DataAmount
+    long bytes;
+
+    static boolean enabled() {
+        return ENABLED_CHECK.isEnabled();
+    }
+}
@@ -0,0 +1,44 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Entry point that flattens a form object into HTTP request parameters,
+ * using its compiled form when enabled by the configuration.
+ */
+final class FormFlattener {
+
+    private FormFlattener() {
+    }
+
+    static void writeFields(Object form, Configuration config, ParameterSink sink) {
+        if (form == null) {
+            return;
+        }
+        if (FlatteningRecorder.isEnabled(config)) {
+            FlatteningRecorder.record(config, form, sink, recordedSink -> flatten(form, config, recordedSink));
+        } else {
+            flatten(form, config, sink);
+        }
+    }
+
+    private static void flatten(Object form, Configuration config, ParameterSink sink) {
+        // Memoized forms are looked up before being compiled
+        if (config.compileForms() && !config.memoizes(form.getClass())) {
+            final Optional<CompiledForm> compiledForm = config.compiledFormFor(form.getClass());
+            if (compiledForm.isPresent()) {
+                compiledForm.get().flatten(form, config, sink);
+                return;
+            }
+        }
+        new FormFieldWrapper(form, config).writeFields(sink);
+    }
+
+    static Map<String, String> collectFields(Object form, Configuration config) {
+        final Map<String, String> fields = new LinkedHashMap<>();
+        writeFields(form, config, fields::put);
+        return fields;
+    }
+}
@@ -0,0 +1,118 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Multipart file streamed from the file-like value of a form field, named after the parameter of the field.
+ * <p>
+ * Content is read from the underlying {@link Resource} or {@link MultipartFile} when the request handler reads it,
+ * and is never copied into an intermediate byte array, unless {@link #getBytes()} is called.
+ *
+ * @see MockMvcRequestBuilderUtils#multipartForm(String, Object, Configuration)
+ */
+final class FormMultipartFile implements MultipartFile {
+
+    private final String name;
+    private final String originalFilename;
+    private final String contentType;
+    private final InputStreamSource source;
+    private long size = -1;
+
+    private FormMultipartFile(String name, String originalFilename, String contentType, InputStreamSource source) {
+        this.name = name;
+        this.originalFilename = originalFilename != null ? originalFilename : "";
+        this.contentType = contentType;
+        this.source = source;
+    }
+
+    /**
+     * Returns whether the given field value is sent as a file part of multipart requests.
+     */
+    static boolean isPart(Object value) {
+        return value instanceof MultipartFile || value instanceof Resource || value instanceof Path
+               || value instanceof File || value instanceof byte[];
+    }
+
+    /**
+     * Creates the file part holding the given file-like value.
+     *
+     * @param name  the parameter name of the part
+     * @param value a value for which {@link #isPart(Object)} is true
+     */
+    static MultipartFile of(String name, Object value) {
+        if (value instanceof MultipartFile multipartFile) {
+            return name.equals(multipartFile.getName()) ?
+                    multipartFile :
+                    new FormMultipartFile(name, multipartFile.getOriginalFilename(), multipartFile.getContentType(), multipartFile);
+        } else if (value instanceof byte[] bytes) {
+            // Mock multipart files hold the given array, without copying it
+            return new MockMultipartFile(name, bytes);
+        }
+        final Resource resource = value instanceof Path path ? new FileSystemResource(path)
+                : value instanceof File file ? new FileSystemResource(file)
+                : (Resource) value;
+        final String contentType = MediaTypeFactory.getMediaType(resource).orElse(MediaType.APPLICATION_OCTET_STREAM).toString();
+        return new FormMultipartFile(name, resource.getFilename(), contentType, resource);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return getSize() == 0;
+    }
+
+    @Override
+    public long getSize() {
+        if (this.size < 0) {
+            try {
+                this.size = this.source instanceof Resource resource ? resource.contentLength() : ((MultipartFile) this.source).getSize();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read the size of part '" + this.name + "'", e);
+            }
+        }
+        return this.size;
+    }
+
+    @Override
+    public byte[] getBytes() throws IOException {
+        return FileCopyUtils.copyToByteArray(getInputStream());
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return this.source.getInputStream();
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        FileCopyUtils.copy(getInputStream(), Files.newOutputStream(dest.toPath()));
+    }
+}
@@ -2,13 +2,16 @@ package io.florianlopes.spring.test.web.servlet.request;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.web.servlet.request.RequestPostProcessor;
 
-import java.util.Map;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
 
 /**
  * Implementation of {@link RequestPostProcessor} that adds form parameters to the request before execution.
+ * When the configuration {@link Configuration#encodeBody() encodes bodies}, the parameters also replace the request content.
  *
  * @see MockMvcRequestBuilderUtils#postForm(String, Object) for implementation details
  */
@@ -16,22 +19,35 @@ public class FormRequestPostProcessor implements RequestPostProcessor {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(FormRequestPostProcessor.class);
 
-    private final Object form;
-    private final Configuration config;
+    private final FormUrlEncoder urlEncoder;
+    private final Consumer<ParameterSink> formWriter;
 
     FormRequestPostProcessor(Object form, Configuration config) {
-        this.form = form;
-        this.config = config;
+        this(config, sink -> FormFlattener.writeFields(form, config, sink));
+    }
+
+    FormRequestPostProcessor(Configuration config, Consumer<ParameterSink> formWriter) {
+        this.urlEncoder = config.urlEncoder();
+        this.formWriter = formWriter;
     }
 
     @Override
     public MockHttpServletRequest postProcessRequest(MockHttpServletRequest request) {
-        final Map<String, String> formFields = new FormFieldWrapper(form, config).collectFields();
-
-        formFields.forEach((fieldName, fieldValue) -> {
+        final FormUrlEncoder.Body body = this.urlEncoder != null ? this.urlEncoder.newBody() : null;
+        this.formWriter.accept((fieldName, fieldValue) -> {
             LOGGER.trace("Adding form field ({}={}) to HTTP request parameters", fieldName, fieldValue);
             request.addParameter(fieldName, fieldValue);
+            if (body != null) {
+                body.accept(fieldName, fieldValue);
+            }
         });
+        if (body != null) {
+            if (request.getContentType() == null) {
+                request.setContentType(MediaType.APPLICATION_FORM_URLENCODED_VALUE);
+            }
+            request.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            request.setContent(body.toByteArray());
+        }
 
         return request;
     }
@@ -0,0 +1,92 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Reusable and immutable plan flattening instances of a single form class into HTTP request parameters.
+ * <p>
+ * The form class is compiled when the template is prepared, whether or not the configuration compiles forms
+ * (see {@link Configuration.Builder#compileForms(boolean)}): preparing a template opts its form class in to compilation,
+ * so that each instance is then flattened without discovering its structure again.
+ * Classes that cannot be compiled, and instances of subclasses, are flattened reflectively.
+ * Templates are thread-safe.
+ *
+ * @param <T> the form class
+ * @see MockMvcRequestBuilderUtils#prepare(Class, Configuration)
+ */
+public final class FormTemplate<T> {
+
+    private final Class<T> formClass;
+    private final Configuration config;
+    private final CompiledForm compiledForm;
+
+    FormTemplate(Class<T> formClass, Configuration config) {
+        this.formClass = Objects.requireNonNull(formClass, "formClass cannot be null");
+        this.config = Objects.requireNonNull(config, "config cannot be null");
+        this.compiledForm = config.memoizes(formClass) ? null : config.compiledFormFor(formClass).orElse(null);
+    }
+
+    public Class<T> formClass() {
+        return formClass;
+    }
+
+    /**
+     * Pushes the HTTP request parameters of the given form to the given sink.
+     *
+     * @param form the form instance, nothing is written if null
+     * @param sink the sink receiving each parameter name and value
+     */
+    public void write(T form, ParameterSink sink) {
+        Objects.requireNonNull(sink, "sink cannot be null");
+        if (form != null && this.compiledForm != null && form.getClass() == this.formClass) {
+            if (FlatteningRecorder.isEnabled(this.config)) {
+                FlatteningRecorder.record(this.config, form, sink, recordedSink -> this.compiledForm.flatten(form, this.config, recordedSink));
+            } else {
+                this.compiledForm.flatten(form, this.config, sink);
+            }
+        } else {
+            FormFlattener.writeFields(form, this.config, sink);
+        }
+    }
+
+    /**
+     * Returns the HTTP request parameters of the given form, in the order they are added to requests.
+     */
+    public Map<String, String> apply(T form) {
+        final Map<String, String> parameters = new LinkedHashMap<>();
+        write(form, parameters::put);
+        return parameters;
+    }
+
+    /**
+     * Post the given form to the given url.
+     *
+     * @see MockMvcRequestBuilderUtils#postForm(String, Object, Configuration)
+     */
+    public MockHttpServletRequestBuilder postForm(String url, T form) {
+        return MockMvcRequestBuilderUtils.buildMockHttpServletRequestBuilder(url, HttpMethod.POST, config, sink -> write(form, sink));
+    }
+
+    /**
+     * Put the given form to the given url.
+     *
+     * @see MockMvcRequestBuilderUtils#putForm(String, Object, Configuration)
+     */
+    public MockHttpServletRequestBuilder putForm(String url, T form) {
+        return MockMvcRequestBuilderUtils.buildMockHttpServletRequestBuilder(url, HttpMethod.PUT, config, sink -> write(form, sink));
+    }
+
+    /**
+     * Creates a FormRequestPostProcessor adding the parameters of the given form to an HTTP request.
+     *
+     * @see MockMvcRequestBuilderUtils#form(Object, Configuration)
+     */
+    public FormRequestPostProcessor form(T form) {
+        return new FormRequestPostProcessor(config, sink -> write(form, sink));
+    }
+}
@@ -0,0 +1,239 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Encodes HTTP request parameters into an {@code application/x-www-form-urlencoded} UTF-8 body,
+ * exactly as {@link java.net.URLEncoder} and Spring's {@code FormHttpMessageConverter} do, or into a query string.
+ * <p>
+ * Characters are percent-encoded with lookup tables straight into an array allocated once at its final size,
+ * without intermediate strings. The path segments of parameter names, which are the same for every instance of
+ * a form class, are encoded once per encoder. Indices and map keys, between brackets, are encoded on each use.
+ */
+final class FormUrlEncoder {
+
+    private static final int MAX_CACHED_SEGMENTS = 4096;
+    private static final byte[] HEX_DIGITS = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+    // Byte written as is for each ASCII character, or 0 if the character is percent-encoded
+    private static final byte[] BODY_BYTES = new byte[128];
+    private static final byte[] QUERY_BYTES;
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            BODY_BYTES[c] = (byte) c;
+            BODY_BYTES[Character.toUpperCase(c)] = (byte) Character.toUpperCase(c);
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            BODY_BYTES[c] = (byte) c;
+        }
+        for (char c : new char[]{'.', '-', '*', '_'}) {
+            BODY_BYTES[c] = (byte) c;
+        }
+        // Query strings are decoded without turning '+' into spaces
+        QUERY_BYTES = BODY_BYTES.clone();
+        BODY_BYTES[' '] = '+';
+    }
+
+    private final byte[] asciiBytes;
+    private final Map<String, byte[]> encodedSegments = new ConcurrentHashMap<>();
+
+    private FormUrlEncoder(byte[] asciiBytes) {
+        this.asciiBytes = asciiBytes;
+    }
+
+    /**
+     * Creates an encoder of {@code application/x-www-form-urlencoded} bodies, writing spaces as {@code '+'}.
+     */
+    static FormUrlEncoder forBody() {
+        return new FormUrlEncoder(BODY_BYTES);
+    }
+
+    /**
+     * Creates an encoder of URI query strings, writing spaces as {@code %20}.
+     */
+    static FormUrlEncoder forQuery() {
+        return new FormUrlEncoder(QUERY_BYTES);
+    }
+
+    /**
+     * Creates a sink collecting parameters into a new body.
+     */
+    Body newBody() {
+        return new Body();
+    }
+
+    /**
+     * Encodes the given parameter name, from the cached encodings of its path segments.
+     * Names without index nor key are returned as cached.
+     */
+    byte[] encodedName(String name) {
+        if (name.indexOf('[') < 0) {
+            return encodedSegment(name);
+        }
+        final byte[] encoded = new byte[encodedLength(name)];
+        int position = 0;
+        int start = 0;
+        while (start < name.length()) {
+            final int open = name.indexOf('[', start);
+            final int end = open < 0 ? name.length() : open;
+            if (end > start) {
+                final byte[] segment = encodedSegment(name.substring(start, end));
+                System.arraycopy(segment, 0, encoded, position, segment.length);
+                position += segment.length;
+            }
+            if (open < 0) {
+                break;
+            }
+            final int close = name.indexOf(']', open);
+            start = close < 0 ? name.length() : close + 1;
+            position = encode(name, open, start, encoded, position);
+        }
+        return encoded;
+    }
+
+    private byte[] encodedSegment(String segment) {
+        final byte[] encodedSegment = this.encodedSegments.get(segment);
+        if (encodedSegment != null) {
+            return encodedSegment;
+        }
+        final byte[] newEncodedSegment = encode(segment);
+        // Segments come from form classes, the bound only guards against unusual names
+        if (this.encodedSegments.size() < MAX_CACHED_SEGMENTS) {
+            this.encodedSegments.put(segment, newEncodedSegment);
+        }
+        return newEncodedSegment;
+    }
+
+    byte[] encode(String value) {
+        final byte[] encoded = new byte[encodedLength(value)];
+        encode(value, encoded, 0);
+        return encoded;
+    }
+
+    int encodedLength(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c < 0x80) {
+                length += this.asciiBytes[c] != 0 ? 1 : 3;
+            } else if (c < 0x800) {
+                length += 6;
+            } else if (isSurrogatePair(value, i)) {
+                length += 12;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogates are replaced with '?', as by URLEncoder
+                length += 3;
+            } else {
+                length += 9;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Writes the encoded value to the given array, from the given position.
+     *
+     * @return the position following the encoded value
+     */
+    int encode(String value, byte[] target, int position) {
+        return encode(value, 0, value.length(), target, position);
+    }
+
+    private int encode(String value, int from, int to, byte[] target, int position) {
+        int pos = position;
+        for (int i = from; i < to; i++) {
+            final char c = value.charAt(i);
+            if (c < 0x80) {
+                final byte b = this.asciiBytes[c];
+                if (b != 0) {
+                    target[pos++] = b;
+                } else {
+                    pos = percentEncode(c, target, pos);
+                }
+            } else if (c < 0x800) {
+                pos = percentEncode(0xC0 | c >> 6, target, pos);
+                pos = percentEncode(0x80 | c & 0x3F, target, pos);
+            } else if (isSurrogatePair(value, i)) {
+                final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                pos = percentEncode(0xF0 | codePoint >> 18, target, pos);
+                pos = percentEncode(0x80 | codePoint >> 12 & 0x3F, target, pos);
+                pos = percentEncode(0x80 | codePoint >> 6 & 0x3F, target, pos);
+                pos = percentEncode(0x80 | codePoint & 0x3F, target, pos);
+            } else if (Character.isSurrogate(c)) {
+                pos = percentEncode('?', target, pos);
+            } else {
+                pos = percentEncode(0xE0 | c >> 12, target, pos);
+                pos = percentEncode(0x80 | c >> 6 & 0x3F, target, pos);
+                pos = percentEncode(0x80 | c & 0x3F, target, pos);
+            }
+        }
+        return pos;
+    }
+
+    private static boolean isSurrogatePair(String value, int index) {
+        return Character.isHighSurrogate(value.charAt(index))
+               && index + 1 < value.length() && Character.isLowSurrogate(value.charAt(index + 1));
+    }
+
+    private static int percentEncode(int b, byte[] target, int position) {
+        target[position] = '%';
+        target[position + 1] = HEX_DIGITS[b >> 4 & 0xF];
+        target[position + 2] = HEX_DIGITS[b & 0xF];
+        return position + 3;
+    }
+
+    /**
+     * Collects parameters, then encodes them into a body or query string of the exact final size.
+     */
+    final class Body implements ParameterSink {
+
+        private final List<byte[]> names = new ArrayList<>();
+        private final List<String> values = new ArrayList<>();
+        private int length;
+
+        private Body() {
+        }
+
+        @Override
+        public void accept(String name, String value) {
+            final byte[] encodedName = encodedName(name);
+            final String nonNullValue = value != null ? value : "";
+            this.length += (this.names.isEmpty() ? 0 : 1) + encodedName.length + 1 + encodedLength(nonNullValue);
+            this.names.add(encodedName);
+            this.values.add(nonNullValue);
+        }
+
+        boolean isEmpty() {
+            return this.names.isEmpty();
+        }
+
+        byte[] toByteArray() {
+            final byte[] body = new byte[this.length];
+            int position = 0;
+            for (int i = 0; i < this.names.size(); i++) {
+                if (i > 0) {
+                    body[position++] = '&';
+                }
+                final byte[] name = this.names.get(i);
+                System.arraycopy(name, 0, body, position, name.length);
+                position += name.length;
+                body[position++] = '=';
+                position = encode(this.values.get(i), body, position);
+            }
+            return body;
+        }
+
+        /**
+         * Returns the encoded parameters as a string, for query strings.
+         */
+        String toEncodedString() {
+            // Encoded parameters only hold ASCII characters, stored as is by compact strings
+            return new String(toByteArray(), StandardCharsets.ISO_8859_1);
+        }
+    }
+}
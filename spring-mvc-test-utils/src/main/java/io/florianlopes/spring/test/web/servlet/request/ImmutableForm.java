@@ -0,0 +1,17 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a form class, or a class of nested form objects, as deeply immutable: its instances always produce the same
+ * HTTP request parameters, which can be memoized (see {@link Configuration.Builder#memoize(int)}).
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ImmutableForm {
+}
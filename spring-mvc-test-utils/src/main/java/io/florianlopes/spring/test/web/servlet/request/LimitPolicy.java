@@ -0,0 +1,32 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+/**
+ * Defines how a form exceeding a traversal limit of its configuration is handled.
+ * Traversal stops as soon as the limit is reached, whatever the policy.
+ *
+ * @see Configuration.Builder#maxDepth(int, LimitPolicy)
+ * @see Configuration.Builder#maxParameters(int, LimitPolicy)
+ * @see Configuration.Builder#maxCollectionSize(int, LimitPolicy)
+ * @see Configuration.Builder#maxValueBytes(long, LimitPolicy)
+ */
+public enum LimitPolicy {
+
+    /**
+     * Throws an {@link IllegalStateException} when the limit is exceeded.
+     */
+    FAIL,
+
+    /**
+     * Adds the parameters within the limit, and skips the others: nodes deeper than the maximum depth,
+     * elements after the maximum collection size, and every parameter after the maximum number of parameters
+     * or value bytes.
+     */
+    TRUNCATE,
+
+    /**
+     * Adds a sample of the elements of iterables, arrays and maps larger than the maximum collection size,
+     * spread evenly across the collection and keeping their index or key. Behaves like {@link #TRUNCATE}
+     * for iterables whose size is unknown, and for the other limits.
+     */
+    SAMPLE
+}
@@ -0,0 +1,81 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the metrics of flattened forms in a Micrometer {@link MeterRegistry}, tagged with the form class:
+ * <ul>
+ *     <li>{@code form.flattening}: timer of the whole flattening</li>
+ *     <li>{@code form.flattening.phase}: timers of the {@code discovery}, {@code formatting} and {@code application}
+ *     phases, tagged with the phase</li>
+ *     <li>{@code form.flattening.nodes}, {@code form.flattening.reads}, {@code form.flattening.formatter.calls} and
+ *     {@code form.flattening.parameters}: counters of visited nodes, reflective reads, formatter calls and parameters</li>
+ * </ul>
+ * This class requires Micrometer on the classpath, which is an optional dependency.
+ *
+ * @see Configuration.Builder#withMicrometerMetrics()
+ */
+public final class MicrometerFlatteningListener implements FlatteningListener {
+
+    private final MeterRegistry registry;
+    private final ClassValue<FormMeters> meters = new ClassValue<>() {
+        @Override
+        protected FormMeters computeValue(Class<?> formClass) {
+            return new FormMeters(registry, Tags.of("form", formClass.getName()));
+        }
+    };
+
+    public MicrometerFlatteningListener(MeterRegistry registry) {
+        this.registry = Objects.requireNonNull(registry, "registry cannot be null");
+    }
+
+    static FlatteningListener globalRegistryListener() {
+        return new MicrometerFlatteningListener(Metrics.globalRegistry);
+    }
+
+    @Override
+    public void onFormFlattened(FlatteningMetrics metrics) {
+        this.meters.get(metrics.formClass()).record(metrics);
+    }
+
+    private static final class FormMeters {
+
+        private final Timer total;
+        private final Timer discovery;
+        private final Timer formatting;
+        private final Timer application;
+        private final Counter nodes;
+        private final Counter reads;
+        private final Counter formatterCalls;
+        private final Counter parameters;
+
+        FormMeters(MeterRegistry registry, Tags tags) {
+            this.total = registry.timer("form.flattening", tags);
+            this.discovery = registry.timer("form.flattening.phase", tags.and("phase", "discovery"));
+            this.formatting = registry.timer("form.flattening.phase", tags.and("phase", "formatting"));
+            this.application = registry.timer("form.flattening.phase", tags.and("phase", "application"));
+            this.nodes = registry.counter("form.flattening.nodes", tags);
+            this.reads = registry.counter("form.flattening.reads", tags);
+            this.formatterCalls = registry.counter("form.flattening.formatter.calls", tags);
+            this.parameters = registry.counter("form.flattening.parameters", tags);
+        }
+
+        void record(FlatteningMetrics metrics) {
+            this.total.record(metrics.totalNanos(), TimeUnit.NANOSECONDS);
+            this.discovery.record(metrics.discoveryNanos(), TimeUnit.NANOSECONDS);
+            this.formatting.record(metrics.formattingNanos(), TimeUnit.NANOSECONDS);
+            this.application.record(metrics.applicationNanos(), TimeUnit.NANOSECONDS);
+            this.nodes.increment(metrics.nodesVisited());
+            this.reads.increment(metrics.reflectiveReads());
+            this.formatterCalls.increment(metrics.formatterCalls());
+            this.parameters.increment(metrics.parametersEmitted());
+        }
+    }
+}
@@ -5,9 +5,24 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.mock.web.MockMultipartHttpServletRequest;
+import org.springframework.test.web.servlet.request.MockMultipartHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Custom MockMvcRequestBuilder to post an entire form to a given url.
@@ -35,7 +50,7 @@ public class MockMvcRequestBuilderUtils {
      * @return mockHttpServletRequestBuilder wrapped mockHttpServletRequestBuilder
      */
     public static MockHttpServletRequestBuilder postForm(String url, Object form, Configuration config) {
-        return buildMockHttpServletRequestBuilder(url, form, config, HttpMethod.POST);
+        return buildMockHttpServletRequestBuilder(url, HttpMethod.POST, config, sink -> FormFlattener.writeFields(form, config, sink));
     }
 
     /**
@@ -47,7 +62,7 @@ public class MockMvcRequestBuilderUtils {
      * @return mockHttpServletRequestBuilder wrapped mockHttpServletRequestBuilder
      */
     public static MockHttpServletRequestBuilder postForm(String url, Object form) {
-        return buildMockHttpServletRequestBuilder(url, form, DEFAULT_CONFIG, HttpMethod.POST);
+        return postForm(url, form, DEFAULT_CONFIG);
     }
 
     /**
@@ -60,7 +75,7 @@ public class MockMvcRequestBuilderUtils {
      * @return mockHttpServletRequestBuilder wrapped mockHttpServletRequestBuilder
      */
     public static MockHttpServletRequestBuilder putForm(String url, Object form, Configuration config) {
-        return buildMockHttpServletRequestBuilder(url, form, config, HttpMethod.PUT);
+        return buildMockHttpServletRequestBuilder(url, HttpMethod.PUT, config, sink -> FormFlattener.writeFields(form, config, sink));
     }
 
     /**
@@ -72,7 +87,117 @@ public class MockMvcRequestBuilderUtils {
      * @return mockHttpServletRequestBuilder wrapped mockHttpServletRequestBuilder
      */
     public static MockHttpServletRequestBuilder putForm(String url, Object form) {
-        return buildMockHttpServletRequestBuilder(url, form, DEFAULT_CONFIG, HttpMethod.PUT);
+        return putForm(url, form, DEFAULT_CONFIG);
+    }
+
+    /**
+     * Get a form from the given url.
+     * All non-null, non-static, non-final form fields will be added as HTTP request parameters using GET method,
+     * and appended to the query string of the request when performed by MockMvc
+     *
+     * @param url    the URL, which may already hold a query string
+     * @param form   form object to send in the query string
+     * @param config configuration object
+     * @return mockHttpServletRequestBuilder wrapped mockHttpServletRequestBuilder
+     */
+    public static MockHttpServletRequestBuilder getForm(String url, Object form, Configuration config) {
+        return buildQueryRequestBuilder(url, HttpMethod.GET, form, config);
+    }
+
+    /**
+     * Get a form from the given url, using the default configuration.
+     *
+     * @see #getForm(String, Object, Configuration)
+     */
+    public static MockHttpServletRequestBuilder getForm(String url, Object form) {
+        return getForm(url, form, DEFAULT_CONFIG);
+    }
+
+    /**
+     * Delete a form at the given url.
+     * All non-null, non-static, non-final form fields will be added as HTTP request parameters using DELETE method,
+     * and appended to the query string of the request when performed by MockMvc
+     *
+     * @param url    the URL, which may already hold a query string
+     * @param form   form object to send in the query string
+     * @param config configuration object
+     * @return mockHttpServletRequestBuilder wrapped mockHttpServletRequestBuilder
+     */
+    public static MockHttpServletRequestBuilder deleteForm(String url, Object form, Configuration config) {
+        return buildQueryRequestBuilder(url, HttpMethod.DELETE, form, config);
+    }
+
+    /**
+     * Delete a form at the given url, using the default configuration.
+     *
+     * @see #deleteForm(String, Object, Configuration)
+     */
+    public static MockHttpServletRequestBuilder deleteForm(String url, Object form) {
+        return deleteForm(url, form, DEFAULT_CONFIG);
+    }
+
+    /**
+     * Patch a form to the given url.
+     * All non-null, non-static, non-final form fields will be added as HTTP request parameters using PATCH method,
+     * and appended to the query string of the request when performed by MockMvc
+     *
+     * @param url    the URL, which may already hold a query string
+     * @param form   form object to send in the query string
+     * @param config configuration object
+     * @return mockHttpServletRequestBuilder wrapped mockHttpServletRequestBuilder
+     */
+    public static MockHttpServletRequestBuilder patchForm(String url, Object form, Configuration config) {
+        return buildQueryRequestBuilder(url, HttpMethod.PATCH, form, config);
+    }
+
+    /**
+     * Patch a form to the given url, using the default configuration.
+     *
+     * @see #patchForm(String, Object, Configuration)
+     */
+    public static MockHttpServletRequestBuilder patchForm(String url, Object form) {
+        return patchForm(url, form, DEFAULT_CONFIG);
+    }
+
+    /**
+     * Post a form to the given url as a multipart request.
+     * File-like form fields ({@code MultipartFile}, {@code Resource}, {@code Path}, {@code File} and {@code byte[]})
+     * are added as file parts named after the field, streamed from their source when the request handler reads them.
+     * Other fields are added as HTTP request parameters.
+     *
+     * @param url    the URL to post the form to
+     * @param form   form object to send using POST method
+     * @param config configuration object
+     * @return mockMultipartHttpServletRequestBuilder wrapped mockMultipartHttpServletRequestBuilder
+     */
+    public static MockMultipartHttpServletRequestBuilder multipartForm(String url, Object form, Configuration config) {
+        final MockMultipartHttpServletRequestBuilder builder = MockMvcRequestBuilders.multipart(url);
+        final List<MultipartFile> files = new ArrayList<>();
+        if (form != null) {
+            new FormFieldWrapper(form, config).writeFields((fieldName, fieldValue) -> {
+                LOGGER.trace("Adding form field ({}={}) to HTTP request parameters", fieldName, fieldValue);
+                builder.param(fieldName, fieldValue);
+            }, (fieldName, file) -> {
+                LOGGER.trace("Adding form field ({}) to HTTP request parts", fieldName);
+                files.add(file);
+            });
+        }
+        // The builder only accepts mock multipart files, holding their content in memory:
+        // files are rather added to the request by a post processor, applied by MockMvc
+        builder.with(request -> {
+            files.forEach(((MockMultipartHttpServletRequest) request)::addFile);
+            return request;
+        });
+        return builder;
+    }
+
+    /**
+     * Post a form to the given url as a multipart request, using the default configuration.
+     *
+     * @see #multipartForm(String, Object, Configuration)
+     */
+    public static MockMultipartHttpServletRequestBuilder multipartForm(String url, Object form) {
+        return multipartForm(url, form, DEFAULT_CONFIG);
     }
 
     /**
@@ -98,28 +223,290 @@ public class MockMvcRequestBuilderUtils {
         return form(form, DEFAULT_CONFIG);
     }
 
-    private static MockHttpServletRequestBuilder buildMockHttpServletRequestBuilder(
+    /**
+     * Pushes the HTTP request parameters of a form to the given sink, as the form is traversed.
+     * Useful to add form parameters to any request abstraction without building intermediate maps.
+     *
+     * @param form   the form object from which to extract HTTP request parameters
+     * @param config the configuration object that customizes how the fields are processed
+     * @param sink   the sink receiving each parameter name and value
+     */
+    public static void writeForm(Object form, Configuration config, ParameterSink sink) {
+        Objects.requireNonNull(sink, "sink cannot be null");
+        FormFlattener.writeFields(form, config, sink);
+    }
+
+    /**
+     * Pushes the HTTP request parameters of a form to the given sink, as the form is traversed.
+     * Uses the default configuration
+     *
+     * @param form the form object from which to extract HTTP request parameters
+     * @param sink the sink receiving each parameter name and value
+     * @see Configuration#DEFAULT
+     */
+    public static void writeForm(Object form, ParameterSink sink) {
+        writeForm(form, DEFAULT_CONFIG, sink);
+    }
+
+    /**
+     * Post each of the given forms to the given url.
+     * Requests are built lazily, as the returned stream is consumed. The url is parsed once
+     * and each form class is compiled once (see {@link #prepare(Class, Configuration)}).
+     *
+     * @param url    the URL to post the forms to
+     * @param forms  form objects to send using POST method
+     * @param config configuration object
+     * @return a stream of mockHttpServletRequestBuilders, one per form
+     */
+    public static Stream<MockHttpServletRequestBuilder> postForms(String url, Stream<?> forms, Configuration config) {
+        return buildMockHttpServletRequestBuilders(url, HttpMethod.POST, forms, config);
+    }
+
+    /**
+     * Post each of the given forms to the given url.
+     *
+     * @see #postForms(String, Stream, Configuration)
+     */
+    public static Stream<MockHttpServletRequestBuilder> postForms(String url, Iterable<?> forms, Configuration config) {
+        return postForms(url, toStream(forms), config);
+    }
+
+    /**
+     * Post each of the given forms to the given url, using the default configuration.
+     *
+     * @see #postForms(String, Stream, Configuration)
+     */
+    public static Stream<MockHttpServletRequestBuilder> postForms(String url, Stream<?> forms) {
+        return postForms(url, forms, DEFAULT_CONFIG);
+    }
+
+    /**
+     * Post each of the given forms to the given url, using the default configuration.
+     *
+     * @see #postForms(String, Stream, Configuration)
+     */
+    public static Stream<MockHttpServletRequestBuilder> postForms(String url, Iterable<?> forms) {
+        return postForms(url, toStream(forms), DEFAULT_CONFIG);
+    }
+
+    /**
+     * Put each of the given forms to the given url.
+     * Requests are built lazily, as the returned stream is consumed. The url is parsed once
+     * and each form class is compiled once (see {@link #prepare(Class, Configuration)}).
+     *
+     * @param url    the URL to put the forms to
+     * @param forms  form objects to send using PUT method
+     * @param config configuration object
+     * @return a stream of mockHttpServletRequestBuilders, one per form
+     */
+    public static Stream<MockHttpServletRequestBuilder> putForms(String url, Stream<?> forms, Configuration config) {
+        return buildMockHttpServletRequestBuilders(url, HttpMethod.PUT, forms, config);
+    }
+
+    /**
+     * Put each of the given forms to the given url.
+     *
+     * @see #putForms(String, Stream, Configuration)
+     */
+    public static Stream<MockHttpServletRequestBuilder> putForms(String url, Iterable<?> forms, Configuration config) {
+        return putForms(url, toStream(forms), config);
+    }
+
+    /**
+     * Put each of the given forms to the given url, using the default configuration.
+     *
+     * @see #putForms(String, Stream, Configuration)
+     */
+    public static Stream<MockHttpServletRequestBuilder> putForms(String url, Stream<?> forms) {
+        return putForms(url, forms, DEFAULT_CONFIG);
+    }
+
+    /**
+     * Put each of the given forms to the given url, using the default configuration.
+     *
+     * @see #putForms(String, Stream, Configuration)
+     */
+    public static Stream<MockHttpServletRequestBuilder> putForms(String url, Iterable<?> forms) {
+        return putForms(url, toStream(forms), DEFAULT_CONFIG);
+    }
+
+    /**
+     * Creates a FormRequestPostProcessor per form, lazily, as the returned stream is consumed.
+     * Each form class is compiled once (see {@link #prepare(Class, Configuration)}).
+     *
+     * @param forms  the form objects from which to extract HTTP request parameters
+     * @param config the configuration object that customizes how the fields are processed
+     * @return a stream of FormRequestPostProcessors, one per form
+     */
+    public static Stream<FormRequestPostProcessor> formAll(Stream<?> forms, Configuration config) {
+        final Map<Class<?>, FormTemplate<Object>> templates = new ConcurrentHashMap<>();
+        return forms.map(form -> new FormRequestPostProcessor(config, sink -> writeForm(form, config, templates, sink)));
+    }
+
+    /**
+     * Creates a FormRequestPostProcessor per form.
+     *
+     * @see #formAll(Stream, Configuration)
+     */
+    public static Stream<FormRequestPostProcessor> formAll(Iterable<?> forms, Configuration config) {
+        return formAll(toStream(forms), config);
+    }
+
+    /**
+     * Creates a FormRequestPostProcessor per form, using the default configuration.
+     *
+     * @see #formAll(Stream, Configuration)
+     */
+    public static Stream<FormRequestPostProcessor> formAll(Stream<?> forms) {
+        return formAll(forms, DEFAULT_CONFIG);
+    }
+
+    /**
+     * Creates a FormRequestPostProcessor per form, using the default configuration.
+     *
+     * @see #formAll(Stream, Configuration)
+     */
+    public static Stream<FormRequestPostProcessor> formAll(Iterable<?> forms) {
+        return formAll(toStream(forms), DEFAULT_CONFIG);
+    }
+
+    /**
+     * Prepares a reusable template flattening instances of the given form class, compiled once
+     * whether or not the configuration compiles forms.
+     * Useful when posting many instances of the same form class.
+     *
+     * @param formClass the form class
+     * @param config    the configuration object that customizes how the fields are processed
+     * @return a thread-safe template for the given form class
+     */
+    public static <T> FormTemplate<T> prepare(Class<T> formClass, Configuration config) {
+        return new FormTemplate<>(formClass, config);
+    }
+
+    /**
+     * Prepares a reusable template flattening instances of the given form class, compiled once.
+     * Uses the default configuration
+     *
+     * @param formClass the form class
+     * @return a thread-safe template for the given form class
+     * @see Configuration#DEFAULT
+     */
+    public static <T> FormTemplate<T> prepare(Class<T> formClass) {
+        return prepare(formClass, DEFAULT_CONFIG);
+    }
+
+    /**
+     * Flattens the given valid form once, to derive variants of it that only flatten their changes.
+     * Useful when each test changes a field or two of a valid form.
+     *
+     * @param form   the baseline form
+     * @param config the configuration object that customizes how the fields are processed
+     * @return a thread-safe baseline of the given form
+     */
+    public static <T> FormBaseline<T> baseline(T form, Configuration config) {
+        return new FormBaseline<>(form, config);
+    }
+
+    /**
+     * Flattens the given valid form once, to derive variants of it that only flatten their changes.
+     * Uses the default configuration
+     *
+     * @param form the baseline form
+     * @return a thread-safe baseline of the given form
+     * @see Configuration#DEFAULT
+     */
+    public static <T> FormBaseline<T> baseline(T form) {
+        return baseline(form, DEFAULT_CONFIG);
+    }
+
+    static MockHttpServletRequestBuilder buildMockHttpServletRequestBuilder(
             String url,
-            Object form,
+            HttpMethod method,
             Configuration config,
-            HttpMethod method
+            Consumer<ParameterSink> formWriter
     ) {
-        final MockHttpServletRequestBuilder builder = MockMvcRequestBuilders.request(method, url)
-                .contentType(MediaType.APPLICATION_FORM_URLENCODED);
-        addFormFieldsToRequestBuilder(form, builder, config);
-        return builder;
+        return addFormFieldsToRequestBuilder(MockMvcRequestBuilders.request(method, url), config, formWriter);
     }
 
-    private static void addFormFieldsToRequestBuilder(
-            Object form,
-            MockHttpServletRequestBuilder mockHttpServletRequestBuilder,
+    private static MockHttpServletRequestBuilder buildQueryRequestBuilder(String url, HttpMethod method, Object form, Configuration config) {
+        final MockHttpServletRequestBuilder builder = MockMvcRequestBuilders.request(method, url);
+        final FormUrlEncoder.Body query = config.queryEncoder().newBody();
+        FormFlattener.writeFields(form, config, (fieldName, fieldValue) -> {
+            LOGGER.trace("Adding form field ({}={}) to HTTP request query", fieldName, fieldValue);
+            builder.param(fieldName, fieldValue);
+            query.accept(fieldName, fieldValue);
+        });
+        if (query.isEmpty()) {
+            return builder;
+        }
+        // Built requests take their query string from their URI, which would then be parsed and decoded again:
+        // the encoded form is rather appended to the query string by a post processor, applied by MockMvc
+        final String encodedQuery = query.toEncodedString();
+        return builder.with(request -> {
+            final String uriQuery = request.getQueryString();
+            request.setQueryString(StringUtils.hasLength(uriQuery) ? uriQuery + "&" + encodedQuery : encodedQuery);
+            return request;
+        });
+    }
+
+    private static Stream<MockHttpServletRequestBuilder> buildMockHttpServletRequestBuilders(
+            String url,
+            HttpMethod method,
+            Stream<?> forms,
             Configuration config
     ) {
-        final Map<String, String> formFields = new FormFieldWrapper(form, config).collectFields();
+        final URI uri = toUri(url);
+        final Map<Class<?>, FormTemplate<Object>> templates = new ConcurrentHashMap<>();
+        return forms.map(form -> addFormFieldsToRequestBuilder(
+                MockMvcRequestBuilders.request(method, uri),
+                config,
+                sink -> writeForm(form, config, templates, sink)
+        ));
+    }
 
-        formFields.forEach((fieldName, fieldValue) -> {
-            LOGGER.trace("Adding form field ({}={}) to HTTP request parameters", fieldName, fieldValue);
-            mockHttpServletRequestBuilder.param(fieldName, fieldValue);
+    private static MockHttpServletRequestBuilder addFormFieldsToRequestBuilder(
+            MockHttpServletRequestBuilder requestBuilder,
+            Configuration config,
+            Consumer<ParameterSink> formWriter
+    ) {
+        final MockHttpServletRequestBuilder builder = requestBuilder.contentType(MediaType.APPLICATION_FORM_URLENCODED);
+        final FormUrlEncoder urlEncoder = config.urlEncoder();
+        if (urlEncoder == null) {
+            formWriter.accept((fieldName, fieldValue) -> {
+                LOGGER.trace("Adding form field ({}={}) to HTTP request parameters", fieldName, fieldValue);
+                builder.param(fieldName, fieldValue);
+            });
+            return builder;
+        }
+        // The mock request parses the parameters back from URL encoded bodies
+        final FormUrlEncoder.Body body = urlEncoder.newBody();
+        formWriter.accept((fieldName, fieldValue) -> {
+            LOGGER.trace("Adding form field ({}={}) to HTTP request body", fieldName, fieldValue);
+            body.accept(fieldName, fieldValue);
         });
+        return builder.characterEncoding(StandardCharsets.UTF_8).content(body.toByteArray());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void writeForm(Object form, Configuration config, Map<Class<?>, FormTemplate<Object>> templates, ParameterSink sink) {
+        if (form != null) {
+            templates.computeIfAbsent(form.getClass(), formClass -> prepare((Class<Object>) formClass, config))
+                    .write(form, sink);
+        }
+    }
+
+    /**
+     * Parses the given url once for a whole batch, as {@link MockMvcRequestBuilders#request(HttpMethod, String, Object...)}
+     * does for every request.
+     */
+    private static URI toUri(String url) {
+        Assert.notNull(url, "'url' must not be null");
+        Assert.isTrue(url.isEmpty() || url.startsWith("/") || url.startsWith("http://") || url.startsWith("https://"),
+                () -> "'url' should start with a path or be a complete HTTP URL: " + url);
+        return UriComponentsBuilder.fromUriString(url.isEmpty() ? "/" : url).buildAndExpand().encode().toUri();
+    }
+
+    private static Stream<?> toStream(Iterable<?> forms) {
+        return StreamSupport.stream(Objects.requireNonNull(forms, "forms cannot be null").spliterator(), false);
     }
 }
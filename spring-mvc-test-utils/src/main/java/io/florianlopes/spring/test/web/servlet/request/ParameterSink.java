@@ -0,0 +1,18 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+/**
+ * Receives the HTTP request parameters of a form, one name/value pair at a time, as the form is traversed.
+ *
+ * @see MockMvcRequestBuilderUtils#writeForm(Object, Configuration, ParameterSink)
+ */
+@FunctionalInterface
+public interface ParameterSink {
+
+    /**
+     * Accepts a form parameter.
+     *
+     * @param name  the parameter name, following the {@code name[index].field} convention
+     * @param value the parameter value
+     */
+    void accept(String name, String value);
+}
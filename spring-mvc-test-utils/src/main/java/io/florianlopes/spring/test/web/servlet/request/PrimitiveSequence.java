@@ -0,0 +1,155 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import org.springframework.util.ClassUtils;
+
+/**
+ * Reads the elements of primitive arrays, and of the primitive lists of fastutil and Eclipse Collections,
+ * by index and without boxing them. Elements are formatted as {@link String#valueOf(Object)} formats their boxed value.
+ * Byte arrays are not sequences, as they hold binary content (see {@link TypeKind#SCALAR}).
+ * <p>
+ * fastutil and Eclipse Collections are optional: their lists are only supported when they are on the classpath.
+ */
+interface PrimitiveSequence {
+
+    int size(Object sequence);
+
+    String format(Object sequence, int index);
+
+    /**
+     * Returns the sequence reading values of the given class, or null if they are not primitive sequences.
+     * Resolved once per class.
+     */
+    static PrimitiveSequence of(Class<?> type) {
+        return Resolver.SEQUENCES.get(type);
+    }
+
+    final class Resolver {
+
+        private static final boolean FASTUTIL_PRESENT =
+                ClassUtils.isPresent("it.unimi.dsi.fastutil.ints.IntList", PrimitiveSequence.class.getClassLoader());
+        private static final boolean ECLIPSE_COLLECTIONS_PRESENT =
+                ClassUtils.isPresent("org.eclipse.collections.api.list.primitive.IntList", PrimitiveSequence.class.getClassLoader());
+
+        private static final ClassValue<PrimitiveSequence> SEQUENCES = new ClassValue<>() {
+            @Override
+            protected PrimitiveSequence computeValue(Class<?> type) {
+                return resolve(type);
+            }
+        };
+
+        private Resolver() {
+        }
+
+        private static PrimitiveSequence resolve(Class<?> type) {
+            if (type.isArray()) {
+                return type.getComponentType().isPrimitive() && type != byte[].class ? PrimitiveArray.of(type.getComponentType()) : null;
+            }
+            // Library sequences are only loaded when the library is present, as they link against it
+            PrimitiveSequence sequence = null;
+            if (FASTUTIL_PRESENT) {
+                sequence = FastutilSequence.of(type);
+            }
+            if (sequence == null && ECLIPSE_COLLECTIONS_PRESENT) {
+                sequence = EclipseCollectionsSequence.of(type);
+            }
+            return sequence;
+        }
+    }
+
+    enum PrimitiveArray implements PrimitiveSequence {
+        BOOLEAN {
+            @Override
+            public int size(Object sequence) {
+                return ((boolean[]) sequence).length;
+            }
+
+            @Override
+            public String format(Object sequence, int index) {
+                return ScalarFormat.formatBoolean(((boolean[]) sequence)[index]);
+            }
+        },
+        CHAR {
+            @Override
+            public int size(Object sequence) {
+                return ((char[]) sequence).length;
+            }
+
+            @Override
+            public String format(Object sequence, int index) {
+                return ScalarFormat.formatChar(((char[]) sequence)[index]);
+            }
+        },
+        SHORT {
+            @Override
+            public int size(Object sequence) {
+                return ((short[]) sequence).length;
+            }
+
+            @Override
+            public String format(Object sequence, int index) {
+                return ScalarFormat.formatInt(((short[]) sequence)[index]);
+            }
+        },
+        INT {
+            @Override
+            public int size(Object sequence) {
+                return ((int[]) sequence).length;
+            }
+
+            @Override
+            public String format(Object sequence, int index) {
+                return ScalarFormat.formatInt(((int[]) sequence)[index]);
+            }
+        },
+        LONG {
+            @Override
+            public int size(Object sequence) {
+                return ((long[]) sequence).length;
+            }
+
+            @Override
+            public String format(Object sequence, int index) {
+                return ScalarFormat.formatLong(((long[]) sequence)[index]);
+            }
+        },
+        FLOAT {
+            @Override
+            public int size(Object sequence) {
+                return ((float[]) sequence).length;
+            }
+
+            @Override
+            public String format(Object sequence, int index) {
+                return Float.toString(((float[]) sequence)[index]);
+            }
+        },
+        DOUBLE {
+            @Override
+            public int size(Object sequence) {
+                return ((double[]) sequence).length;
+            }
+
+            @Override
+            public String format(Object sequence, int index) {
+                return Double.toString(((double[]) sequence)[index]);
+            }
+        };
+
+        static PrimitiveArray of(Class<?> componentType) {
+            if (componentType == int.class) {
+                return INT;
+            } else if (componentType == long.class) {
+                return LONG;
+            } else if (componentType == double.class) {
+                return DOUBLE;
+            } else if (componentType == float.class) {
+                return FLOAT;
+            } else if (componentType == boolean.class) {
+                return BOOLEAN;
+            } else if (componentType == char.class) {
+                return CHAR;
+            }
+            return SHORT;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+/**
+ * Defines how the values added to the HTTP request are read from form objects.
+ *
+ * @see Configuration.Builder#propertyAccess(PropertyAccess)
+ */
+public enum PropertyAccess {
+
+    /**
+     * Reads the fields declared by form classes and their superclasses, selected by the field predicate of the configuration.
+     */
+    FIELD,
+
+    /**
+     * Reads properties the way Spring's {@code WebDataBinder} binds them: record components through their accessors,
+     * and JavaBean properties through their getters. Only bean properties the binder can bind are read: properties
+     * with a setter, and nested objects, which the binder binds through their getter.
+     * Properties backed by a field rejected by the field predicate of the configuration are skipped.
+     * <p>
+     * Parameters follow the order of the record components, and the declaration order of the fields backing the bean
+     * properties, then of the other properties, by name.
+     */
+    PROPERTY
+}
@@ -0,0 +1,229 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import org.springframework.util.ClassUtils;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Formats primitives, their wrappers, strings and enums exactly as {@link String#valueOf(Object)} does, for fields
+ * without property editor nor conversion service (see {@link ValueFormatter#scalarFormatFor(FormFieldMetadata)}).
+ * <p>
+ * Primitive fields have a format per primitive type, reading them with the typed getters of their {@link FieldAccessor}
+ * without boxing their value. Wrapper fields share the {@link #BOXED} format.
+ * Small integers, ASCII characters, booleans and enum constants are formatted to cached strings, without allocating.
+ */
+enum ScalarFormat {
+
+    BOOLEAN {
+        @Override
+        String format(Object value) {
+            return formatBoolean((Boolean) value);
+        }
+
+        @Override
+        String read(FieldAccessor accessor, Object target) {
+            return formatBoolean(accessor.getBoolean(target));
+        }
+    },
+    CHAR {
+        @Override
+        String format(Object value) {
+            return formatChar((Character) value);
+        }
+
+        @Override
+        String read(FieldAccessor accessor, Object target) {
+            return formatChar(accessor.getChar(target));
+        }
+    },
+    BYTE {
+        @Override
+        String format(Object value) {
+            return formatInt((Byte) value);
+        }
+
+        @Override
+        String read(FieldAccessor accessor, Object target) {
+            return formatInt(accessor.getByte(target));
+        }
+    },
+    SHORT {
+        @Override
+        String format(Object value) {
+            return formatInt((Short) value);
+        }
+
+        @Override
+        String read(FieldAccessor accessor, Object target) {
+            return formatInt(accessor.getShort(target));
+        }
+    },
+    INT {
+        @Override
+        String format(Object value) {
+            return formatInt((Integer) value);
+        }
+
+        @Override
+        String read(FieldAccessor accessor, Object target) {
+            return formatInt(accessor.getInt(target));
+        }
+    },
+    LONG {
+        @Override
+        String format(Object value) {
+            return formatLong((Long) value);
+        }
+
+        @Override
+        String read(FieldAccessor accessor, Object target) {
+            return formatLong(accessor.getLong(target));
+        }
+    },
+    FLOAT {
+        @Override
+        String format(Object value) {
+            return Float.toString((Float) value);
+        }
+
+        @Override
+        String read(FieldAccessor accessor, Object target) {
+            return Float.toString(accessor.getFloat(target));
+        }
+    },
+    DOUBLE {
+        @Override
+        String format(Object value) {
+            return Double.toString((Double) value);
+        }
+
+        @Override
+        String read(FieldAccessor accessor, Object target) {
+            return Double.toString(accessor.getDouble(target));
+        }
+    },
+    /**
+     * Wrappers of primitives, which may be null.
+     */
+    BOXED {
+        @Override
+        String format(Object value) {
+            if (value instanceof Integer intValue) {
+                return formatInt(intValue);
+            } else if (value instanceof Long longValue) {
+                return formatLong(longValue);
+            } else if (value instanceof Boolean booleanValue) {
+                return formatBoolean(booleanValue);
+            } else if (value instanceof Character charValue) {
+                return formatChar(charValue);
+            } else if (value instanceof Short shortValue) {
+                return formatInt(shortValue);
+            } else if (value instanceof Byte byteValue) {
+                return formatInt(byteValue);
+            }
+            // Floats and doubles
+            return value.toString();
+        }
+    },
+    STRING {
+        @Override
+        String format(Object value) {
+            return (String) value;
+        }
+    },
+    ENUM {
+        @Override
+        String format(Object value) {
+            final Enum<?> constant = (Enum<?>) value;
+            return ENUM_NAMES.get(constant.getDeclaringClass())[constant.ordinal()];
+        }
+    };
+
+    private static final int MIN_CACHED_INT = -128;
+    private static final int MAX_CACHED_INT = 1023;
+    private static final String[] INTS = new String[MAX_CACHED_INT - MIN_CACHED_INT + 1];
+    private static final String[] ASCII_CHARS = new String[128];
+
+    // Strings of the constants of each enum class, by ordinal, as returned by their toString() method
+    private static final ClassValue<String[]> ENUM_NAMES = new ClassValue<>() {
+        @Override
+        protected String[] computeValue(Class<?> type) {
+            return Arrays.stream(type.getEnumConstants()).map(String::valueOf).toArray(String[]::new);
+        }
+    };
+
+    static {
+        for (int i = 0; i < INTS.length; i++) {
+            INTS[i] = Integer.toString(MIN_CACHED_INT + i);
+        }
+        for (char c = 0; c < ASCII_CHARS.length; c++) {
+            ASCII_CHARS[c] = String.valueOf(c);
+        }
+    }
+
+    /**
+     * Returns the format of fields of the given type, or an empty optional if their values are formatted
+     * by the {@link ValueFormatter}.
+     */
+    static Optional<ScalarFormat> of(Class<?> type) {
+        if (type == String.class) {
+            return Optional.of(STRING);
+        } else if (type.isEnum()) {
+            return Optional.of(ENUM);
+        } else if (type.isPrimitive()) {
+            return Optional.of(ofPrimitive(type));
+        } else if (ClassUtils.isPrimitiveWrapper(type)) {
+            return Optional.of(BOXED);
+        }
+        return Optional.empty();
+    }
+
+    private static ScalarFormat ofPrimitive(Class<?> type) {
+        if (type == int.class) {
+            return INT;
+        } else if (type == long.class) {
+            return LONG;
+        } else if (type == boolean.class) {
+            return BOOLEAN;
+        } else if (type == double.class) {
+            return DOUBLE;
+        } else if (type == float.class) {
+            return FLOAT;
+        } else if (type == char.class) {
+            return CHAR;
+        } else if (type == short.class) {
+            return SHORT;
+        }
+        return BYTE;
+    }
+
+    /**
+     * Formats the given non-null value.
+     */
+    abstract String format(Object value);
+
+    /**
+     * Reads and formats the value of the given field of this format, or returns null if the field value is null.
+     */
+    String read(FieldAccessor accessor, Object target) {
+        final Object value = accessor.get(target);
+        return value != null ? format(value) : null;
+    }
+
+    static String formatInt(int value) {
+        return value >= MIN_CACHED_INT && value <= MAX_CACHED_INT ? INTS[value - MIN_CACHED_INT] : Integer.toString(value);
+    }
+
+    static String formatLong(long value) {
+        return value >= MIN_CACHED_INT && value <= MAX_CACHED_INT ? INTS[(int) value - MIN_CACHED_INT] : Long.toString(value);
+    }
+
+    static String formatBoolean(boolean value) {
+        return value ? "true" : "false";
+    }
+
+    static String formatChar(char value) {
+        return value < ASCII_CHARS.length ? ASCII_CHARS[value] : String.valueOf(value);
+    }
+}
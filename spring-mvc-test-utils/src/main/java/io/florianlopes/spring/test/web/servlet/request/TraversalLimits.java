@@ -0,0 +1,148 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+/**
+ * Bounds the work a single form can cause: the depth of its parameters, their number, the size of each of its
+ * collections, and the total size of the parameter values. Each limit has its own {@link LimitPolicy}.
+ * <p>
+ * Limits are checked by the traversal as it goes, so that the parts of the form beyond a limit are never visited.
+ */
+final class TraversalLimits {
+
+    static final int UNLIMITED = Integer.MAX_VALUE;
+
+    private final int maxDepth;
+    private final LimitPolicy depthPolicy;
+    private final int maxParameters;
+    private final LimitPolicy parametersPolicy;
+    private final int maxCollectionSize;
+    private final LimitPolicy collectionSizePolicy;
+    private final long maxValueBytes;
+    private final LimitPolicy valueBytesPolicy;
+
+    TraversalLimits(int maxDepth, LimitPolicy depthPolicy, int maxParameters, LimitPolicy parametersPolicy,
+                    int maxCollectionSize, LimitPolicy collectionSizePolicy, long maxValueBytes, LimitPolicy valueBytesPolicy) {
+        this.maxDepth = maxDepth;
+        this.depthPolicy = depthPolicy;
+        this.maxParameters = maxParameters;
+        this.parametersPolicy = parametersPolicy;
+        this.maxCollectionSize = maxCollectionSize;
+        this.collectionSizePolicy = collectionSizePolicy;
+        this.maxValueBytes = maxValueBytes;
+        this.valueBytesPolicy = valueBytesPolicy;
+    }
+
+    boolean limitsDepth() {
+        return this.maxDepth != UNLIMITED;
+    }
+
+    /**
+     * Returns whether a node of the given depth, the number of segments of its parameter name, can be visited.
+     *
+     * @throws IllegalStateException if the node is too deep and the policy is {@link LimitPolicy#FAIL}
+     */
+    boolean allowsDepth(int depth, CharSequence path) {
+        if (depth <= this.maxDepth) {
+            return true;
+        }
+        if (this.depthPolicy == LimitPolicy.FAIL) {
+            throw new IllegalStateException("Form exceeds the maximum depth of " + this.maxDepth + " at '" + path + "'");
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether a parameter can be added after the given number of parameters and value bytes.
+     *
+     * @throws IllegalStateException if a limit is exceeded and its policy is {@link LimitPolicy#FAIL}
+     */
+    boolean allowsParameter(int parameters, long valueBytes, String name) {
+        if (parameters >= this.maxParameters) {
+            if (this.parametersPolicy == LimitPolicy.FAIL) {
+                throw new IllegalStateException("Form exceeds the maximum of " + this.maxParameters + " parameters at '" + name + "'");
+            }
+            return false;
+        }
+        if (valueBytes > this.maxValueBytes) {
+            if (this.valueBytesPolicy == LimitPolicy.FAIL) {
+                throw new IllegalStateException("Form exceeds the maximum of " + this.maxValueBytes + " value bytes at '" + name + "'");
+            }
+            return false;
+        }
+        return true;
+    }
+
+    boolean limitsValueBytes() {
+        return this.maxValueBytes != Long.MAX_VALUE;
+    }
+
+    /**
+     * Returns the number of elements visited in a collection of the given size, -1 if unknown.
+     *
+     * @throws IllegalStateException if the collection is too large and the policy is {@link LimitPolicy#FAIL}
+     */
+    int visitedElements(int size, CharSequence path) {
+        if (size >= 0 && size <= this.maxCollectionSize) {
+            return size;
+        }
+        if (size > this.maxCollectionSize && this.collectionSizePolicy == LimitPolicy.FAIL) {
+            throw collectionTooLarge(path);
+        }
+        return this.maxCollectionSize;
+    }
+
+    /**
+     * Returns whether the elements of a collection of the given size are sampled, rather than truncated.
+     */
+    boolean samples(int size) {
+        return this.collectionSizePolicy == LimitPolicy.SAMPLE && size > this.maxCollectionSize;
+    }
+
+    /**
+     * Handles an element found after the maximum number of elements of a collection whose size was unknown.
+     *
+     * @throws IllegalStateException if the policy is {@link LimitPolicy#FAIL}
+     */
+    void onExtraElement(CharSequence path) {
+        if (this.collectionSizePolicy == LimitPolicy.FAIL) {
+            throw collectionTooLarge(path);
+        }
+    }
+
+    private IllegalStateException collectionTooLarge(CharSequence path) {
+        return new IllegalStateException("Collection at '" + path + "' exceeds the maximum size of " + this.maxCollectionSize);
+    }
+
+    /**
+     * Returns the number of segments of the given parameter name, which is the depth of the node it names.
+     */
+    static int depthOf(CharSequence path) {
+        if (path.length() == 0) {
+            return 0;
+        }
+        int depth = 1;
+        for (int i = 0; i < path.length(); i++) {
+            final char c = path.charAt(i);
+            if (c == '.' || c == '[') {
+                depth++;
+            }
+        }
+        return depth;
+    }
+
+    /**
+     * Returns the number of bytes of the given value encoded in UTF-8.
+     */
+    static int utf8Length(String value) {
+        int length = value.length();
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c >= 0x800 && !Character.isSurrogate(c)) {
+                length += 2;
+            } else if (c >= 0x80) {
+                // Surrogate pairs take 4 bytes, counted 2 per surrogate
+                length++;
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,91 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import org.springframework.util.ClassUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.temporal.Temporal;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Classification of a type, deciding how its values are added to the HTTP request:
+ * either as a single parameter, or through their elements, entries or fields.
+ */
+enum TypeKind {
+
+    /**
+     * Primitives, wrappers, strings, and types without superclass such as {@link Object} and interfaces.
+     * Byte arrays are scalars too: they hold binary content, only sent as a file part by multipart forms.
+     */
+    SCALAR(false),
+    ENUM(false),
+    TEMPORAL(false),
+    BIG_NUMBER(false),
+    ARRAY(false),
+    ITERABLE(true),
+    MAP(true),
+    BEAN(true);
+
+    private static final ClassValue<TypeKind> KINDS = new ClassValue<>() {
+        @Override
+        protected TypeKind computeValue(Class<?> type) {
+            return classify(type);
+        }
+    };
+
+    private final boolean complex;
+
+    TypeKind(boolean complex) {
+        this.complex = complex;
+    }
+
+    /**
+     * Returns whether values of this kind are made of fields, which is also the case of iterable and map
+     * implementations reached without a declaring field (as the form itself or as collection elements).
+     */
+    boolean isComplex() {
+        return complex;
+    }
+
+    /**
+     * Returns the kind of the given type, classified once per type.
+     */
+    static TypeKind of(Class<?> type) {
+        return KINDS.get(type);
+    }
+
+    /**
+     * Returns the kind of the given type, considering the given types and their subtypes as scalars.
+     */
+    static TypeKind of(Class<?> type, Collection<Class<?>> scalarTypes) {
+        for (Class<?> scalarType : scalarTypes) {
+            if (scalarType.isAssignableFrom(type)) {
+                return SCALAR;
+            }
+        }
+        return of(type);
+    }
+
+    private static TypeKind classify(Class<?> type) {
+        if (type == byte[].class) {
+            return SCALAR;
+        } else if (type.isArray()) {
+            return ARRAY;
+        } else if (Iterable.class.isAssignableFrom(type) || PrimitiveSequence.of(type) != null) {
+            return ITERABLE;
+        } else if (Map.class.isAssignableFrom(type)) {
+            return MAP;
+        } else if (ClassUtils.isPrimitiveOrWrapper(type) || String.class == type || type.getSuperclass() == null) {
+            return SCALAR;
+        } else if (type == Number.class || BigInteger.class.isAssignableFrom(type) || BigDecimal.class.isAssignableFrom(type)) {
+            return BIG_NUMBER;
+        } else if (Date.class.isAssignableFrom(type) || Temporal.class.isAssignableFrom(type)) {
+            return TEMPORAL;
+        } else if (Enum.class.isAssignableFrom(type.getSuperclass())) {
+            return ENUM;
+        }
+        return BEAN;
+    }
+}
@@ -0,0 +1,160 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.PropertyEditorRegistrySupport;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+
+import java.beans.PropertyEditor;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Formats field values with the property editors registered in a {@link Configuration}, safely across threads.
+ * <p>
+ * {@link PropertyEditor}s hold the value being formatted, so each thread resolves editors from its own registry.
+ * Editors registered with a factory are created once per thread and used without locking,
+ * whereas editor instances shared by every thread are locked while formatting a value.
+ * <p>
+ * Field values without a property editor are converted with the first {@link ConversionService} able to convert them,
+ * which takes the field annotations (such as {@code @DateTimeFormat}) into account.
+ * Whether a field is convertible, and its type descriptor, are resolved once per field and stored in its metadata.
+ * <p>
+ * Primitives, their wrappers, strings and enums without property editor are formatted by their {@link ScalarFormat}
+ * when no conversion service is registered, skipping the property editor registry entirely.
+ */
+final class ValueFormatter {
+
+    private final Map<Class<?>, Supplier<? extends PropertyEditor>> editorFactories;
+    private final Set<PropertyEditor> sharedEditors;
+    private final ThreadLocal<PropertyEditorRegistrySupport> registries;
+    private final List<ConversionService> conversionServices;
+
+    ValueFormatter(Map<Class<?>, Supplier<? extends PropertyEditor>> editorFactories, Collection<PropertyEditor> sharedEditors,
+                   List<ConversionService> conversionServices) {
+        this.editorFactories = Collections.unmodifiableMap(new LinkedHashMap<>(editorFactories));
+        final Set<PropertyEditor> editors = Collections.newSetFromMap(new IdentityHashMap<>());
+        editors.addAll(sharedEditors);
+        this.sharedEditors = Collections.unmodifiableSet(editors);
+        this.registries = ThreadLocal.withInitial(this::newRegistry);
+        this.conversionServices = List.copyOf(conversionServices);
+    }
+
+    /**
+     * Returns the editor of the given type for the current thread, or null if there is none.
+     */
+    PropertyEditor editorFor(Class<?> type) {
+        if (this.editorFactories.isEmpty()) {
+            return null;
+        }
+        final PropertyEditorRegistrySupport registry = this.registries.get();
+        return registry.hasCustomEditorForElement(type, null) ?
+                registry.findCustomEditor(type, null) :
+                registry.getDefaultEditor(type);
+    }
+
+    /**
+     * Formats a value of the given field: with its property editor if any, then with a conversion service,
+     * then with {@link String#valueOf(Object)}.
+     */
+    String format(FormFieldMetadata field, Object value) {
+        if (value != null) {
+            final Optional<ScalarFormat> scalarFormat = scalarFormatFor(field);
+            if (scalarFormat.isPresent()) {
+                return scalarFormat.get().format(value);
+            }
+        }
+        final PropertyEditor propertyEditor = editorFor(field.fieldType());
+        if (propertyEditor != null) {
+            return format(propertyEditor, value);
+        } else if (value != null && !this.conversionServices.isEmpty()) {
+            final Optional<FieldConversion> conversion = conversionFor(field);
+            if (conversion.isPresent()) {
+                return conversion.get().convert(value);
+            }
+        }
+        return value != null ? String.valueOf(value) : StringUtils.EMPTY;
+    }
+
+    /**
+     * Returns the format of the values of the given field, resolved once per field, or an empty optional
+     * if they are formatted with a property editor or a conversion service.
+     */
+    Optional<ScalarFormat> scalarFormatFor(FormFieldMetadata field) {
+        Optional<ScalarFormat> scalarFormat = field.scalarFormat();
+        if (scalarFormat == null) {
+            scalarFormat = resolveScalarFormat(field);
+            field.scalarFormat(scalarFormat);
+        }
+        return scalarFormat;
+    }
+
+    private Optional<ScalarFormat> resolveScalarFormat(FormFieldMetadata field) {
+        // Default editors of primitives and wrappers format values as String.valueOf does, custom editors may not
+        if (!this.conversionServices.isEmpty() || field.type() != field.fieldType()
+            || this.editorFactories.containsKey(field.type())) {
+            return Optional.empty();
+        }
+        return ScalarFormat.of(field.type());
+    }
+
+    private String format(PropertyEditor propertyEditor, Object value) {
+        if (this.sharedEditors.contains(propertyEditor)) {
+            synchronized (propertyEditor) {
+                return asText(propertyEditor, value);
+            }
+        }
+        return asText(propertyEditor, value);
+    }
+
+    private static String asText(PropertyEditor propertyEditor, Object value) {
+        propertyEditor.setValue(value);
+        return propertyEditor.getAsText();
+    }
+
+    private Optional<FieldConversion> conversionFor(FormFieldMetadata field) {
+        Optional<FieldConversion> conversion = field.conversion();
+        if (conversion == null) {
+            conversion = resolveConversion(field);
+            field.conversion(conversion);
+        }
+        return conversion;
+    }
+
+    private Optional<FieldConversion> resolveConversion(FormFieldMetadata field) {
+        // Generic fields are formatted as their first type argument, which carries no annotation
+        final TypeDescriptor sourceType = field.type() == field.fieldType() ?
+                field.typeDescriptor() :
+                TypeDescriptor.valueOf(field.fieldType());
+        return this.conversionServices.stream()
+                .filter(conversionService -> conversionService.canConvert(sourceType, FieldConversion.STRING))
+                .findFirst()
+                .map(conversionService -> new FieldConversion(conversionService, sourceType));
+    }
+
+    private PropertyEditorRegistrySupport newRegistry() {
+        final PropertyEditorRegistrySupport registry = new PropertyEditorRegistrySupport();
+        this.editorFactories.forEach((type, editorFactory) -> registry.registerCustomEditor(type, editorFactory.get()));
+        return registry;
+    }
+
+    /**
+     * Conversion of the values of a field to strings, with the first conversion service able to convert them.
+     */
+    record FieldConversion(ConversionService conversionService, TypeDescriptor sourceType) {
+
+        private static final TypeDescriptor STRING = TypeDescriptor.valueOf(String.class);
+
+        String convert(Object value) {
+            final Object converted = this.conversionService.convert(value, this.sourceType, STRING);
+            return converted != null ? (String) converted : StringUtils.EMPTY;
+        }
+    }
+}
@@ -2,11 +2,23 @@ package io.florianlopes.spring.test.web.servlet.request;
 
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.springframework.format.Formatter;
+import org.springframework.format.support.DefaultFormattingConversionService;
 
+import java.beans.PropertyEditor;
 import java.beans.PropertyEditorSupport;
 import java.lang.reflect.Field;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -95,6 +107,236 @@ class ConfigurationTests {
                 .isEqualTo(propertyEditorForBigDecimal);
     }
 
+    @Test
+    void propertyEditorFactoryCreatesOneEditorPerThread() throws Exception {
+        final Configuration config = Configuration.builder()
+                .withPropertyEditorFactory(() -> new CustomLocalDatePropertyEditor("dd/MM/yyyy"), LocalDate.class)
+                .build();
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            final PropertyEditor otherThreadEditor = executor.submit(() -> config.propertyEditorFor(LocalDate.class)).get();
+
+            assertThat(config.propertyEditorFor(LocalDate.class))
+                    .isInstanceOf(CustomLocalDatePropertyEditor.class)
+                    .isSameAs(config.propertyEditorFor(LocalDate.class))
+                    .isNotSameAs(otherThreadEditor);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void formatsValuesConcurrently() throws Exception {
+        final Configuration sharedEditorConfig = Configuration.builder()
+                .withPropertyEditor(new CustomLocalDatePropertyEditor("dd/MM/yyyy"), LocalDate.class)
+                .build();
+        final Configuration editorFactoryConfig = Configuration.builder()
+                .withPropertyEditorFactory(() -> new CustomLocalDatePropertyEditor("dd/MM/yyyy"), LocalDate.class)
+                .build();
+        final FormFieldMetadata sharedEditorField = birthDateField(sharedEditorConfig);
+        final FormFieldMetadata editorFactoryField = birthDateField(editorFactoryConfig);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            final List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                final LocalDate date = LocalDate.of(2000, 1, 1).plusDays(i);
+                final String expected = date.format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+                results.add(executor.submit(() -> {
+                    for (int j = 0; j < 1_000; j++) {
+                        if (!expected.equals(sharedEditorConfig.format(sharedEditorField, date))
+                            || !expected.equals(editorFactoryConfig.format(editorFactoryField, date))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void nonPositiveParallelThresholdThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> Configuration.builder()
+                .parallelThreshold(0));
+    }
+
+    @Test
+    void nonPositiveMemoizationSizeThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> Configuration.builder()
+                .memoize(0));
+    }
+
+    @Test
+    void nonPositiveTraversalLimitsThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> Configuration.builder().maxDepth(0, LimitPolicy.FAIL));
+        assertThrows(IllegalArgumentException.class, () -> Configuration.builder().maxParameters(0, LimitPolicy.FAIL));
+        assertThrows(IllegalArgumentException.class, () -> Configuration.builder().maxCollectionSize(0, LimitPolicy.FAIL));
+        assertThrows(IllegalArgumentException.class, () -> Configuration.builder().maxValueBytes(0, LimitPolicy.FAIL));
+    }
+
+    @Test
+    void nullLimitPolicyThrowsNullPointerException() {
+        assertThrows(NullPointerException.class, () -> Configuration.builder().maxDepth(1, null));
+    }
+
+    @Test
+    void memoizesAnnotatedAndDeclaredImmutableTypes() {
+        final Configuration config = Configuration.builder()
+                .memoize(16)
+                .immutableTypes(type -> type == AddUserForm.Address.class)
+                .build();
+        final Configuration recordConfig = Configuration.builder()
+                .memoize(16)
+                .immutableTypes(Class::isRecord)
+                .build();
+
+        assertThat(config.memoizes(Contact.class)).isFalse();
+        assertThat(recordConfig.memoizes(Contact.class)).isTrue();
+        assertThat(config.memoizes(ImmutableAddress.class)).isTrue();
+        assertThat(config.memoizes(AddUserForm.Address.class)).isTrue();
+        assertThat(config.memoizes(AddUserForm.class)).isFalse();
+        assertThat(Configuration.DEFAULT.memoizes(Contact.class)).isFalse();
+    }
+
+    @Test
+    void registerNullPropertyEditorFactoryThrowsNullPointerException() {
+        assertThrows(NullPointerException.class, () -> Configuration.builder()
+                .withPropertyEditorFactory(null, LocalDate.class));
+    }
+
+    @Test
+    void formatsValuesWithRegisteredFormatter() {
+        final Configuration config = Configuration.builder()
+                .withFormatter(LocalDate.class, new Formatter<LocalDate>() {
+                    @Override
+                    public String print(LocalDate date, Locale locale) {
+                        return date.format(DateTimeFormatter.ofPattern("yyyy/MM/dd"));
+                    }
+
+                    @Override
+                    public LocalDate parse(String text, Locale locale) {
+                        return LocalDate.parse(text, DateTimeFormatter.ofPattern("yyyy/MM/dd"));
+                    }
+                })
+                .build();
+
+        assertThat(config.format(birthDateField(config), LocalDate.of(2016, 8, 29))).isEqualTo("2016/08/29");
+    }
+
+    @Test
+    void formatsValuesWithFieldAnnotationsUsingConversionService() {
+        final Configuration config = Configuration.builder()
+                .withConversionService(new DefaultFormattingConversionService())
+                .build();
+
+        // birthDate is annotated with @DateTimeFormat(pattern = "dd.MM.yyyy")
+        assertThat(config.format(birthDateField(config), LocalDate.of(2016, 8, 29))).isEqualTo("29.08.2016");
+    }
+
+    @Test
+    void resolvesConversionOncePerFieldOfEachConfiguration() {
+        final Configuration config = Configuration.builder()
+                .withConversionService(new DefaultFormattingConversionService())
+                .build();
+        final FormFieldMetadata birthDate = birthDateField(config);
+
+        assertThat(birthDate.conversion()).isNull();
+        config.format(birthDate, LocalDate.of(2016, 8, 29));
+        final Optional<ValueFormatter.FieldConversion> conversion = birthDate.conversion();
+        config.format(birthDate, LocalDate.of(2017, 8, 29));
+
+        assertThat(conversion).isPresent();
+        assertThat(birthDate.conversion()).isSameAs(conversion);
+        assertThat(birthDateField(Configuration.DEFAULT).conversion()).isNull();
+    }
+
+    @Test
+    void propertyEditorTakesPrecedenceOverConversionService() {
+        final Configuration config = Configuration.builder()
+                .withConversionService(new DefaultFormattingConversionService())
+                .withPropertyEditor(new CustomLocalDatePropertyEditor("dd/MM/yyyy"), LocalDate.class)
+                .build();
+
+        assertThat(config.format(birthDateField(config), LocalDate.of(2016, 8, 29))).isEqualTo("29/08/2016");
+    }
+
+    @Test
+    void registerNullConversionServiceThrowsNullPointerException() {
+        assertThrows(NullPointerException.class, () -> Configuration.builder()
+                .withConversionService(null));
+    }
+
+    private static FormFieldMetadata birthDateField(Configuration config) {
+        return config.metadataFor(AddUserForm.class).fields().stream()
+                .filter(field -> "birthDate".equals(field.name()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    void formatsScalarFieldsWithoutPropertyEditorNorConversionService() {
+        final FormFieldMetadata streetNumber = fieldOf(Configuration.DEFAULT, "streetNumber");
+        final FormFieldMetadata city = fieldOf(Configuration.DEFAULT, "city");
+
+        assertThat(Configuration.DEFAULT.scalarFormatFor(streetNumber)).contains(ScalarFormat.INT);
+        assertThat(Configuration.DEFAULT.scalarFormatFor(city)).contains(ScalarFormat.STRING);
+    }
+
+    @Test
+    void formatsScalarFieldsWithTheirPropertyEditorOrConversionService() {
+        final PropertyEditorSupport propertyEditor = new PropertyEditorSupport() {
+            @Override
+            public String getAsText() {
+                return "#" + getValue();
+            }
+        };
+        final Configuration editorConfig = Configuration.builder()
+                .withPropertyEditor(propertyEditor, int.class)
+                .build();
+        final Configuration conversionConfig = Configuration.builder()
+                .withConversionService(new DefaultFormattingConversionService())
+                .build();
+        final FormFieldMetadata streetNumber = fieldOf(editorConfig, "streetNumber");
+
+        assertThat(editorConfig.scalarFormatFor(streetNumber)).isEmpty();
+        assertThat(editorConfig.format(streetNumber, 1)).isEqualTo("#1");
+        assertThat(editorConfig.scalarFormatFor(fieldOf(editorConfig, "city"))).contains(ScalarFormat.STRING);
+        assertThat(conversionConfig.scalarFormatFor(fieldOf(conversionConfig, "city"))).isEmpty();
+    }
+
+    private static FormFieldMetadata fieldOf(Configuration config, String name) {
+        return config.metadataFor(AddUserForm.Address.class).fields().stream()
+                .filter(field -> field.name().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    void cachesClassMetadataPerConfiguration() {
+        final Configuration config = Configuration.builder().build();
+
+        assertThat(config.metadataFor(TestClass.class)).isSameAs(config.metadataFor(TestClass.class));
+        assertThat(config.metadataFor(TestClass.class)).isNotSameAs(Configuration.INCLUDE_STATIC.metadataFor(TestClass.class));
+    }
+
+    @Test
+    void classMetadataOnlyContainsFieldsMatchingPredicate() {
+        assertThat(Configuration.DEFAULT.metadataFor(TestClass.class).fields())
+                .extracting(FormFieldMetadata::name)
+                .containsExactly("finalField", "simpleField");
+        assertThat(Configuration.INCLUDE_STATIC.metadataFor(TestClass.class).fields())
+                .extracting(FormFieldMetadata::name)
+                .containsExactly("STATIC_FIELD", "simpleField");
+    }
+
     static class TestClass {
 
         private static String STATIC_FIELD = "staticFieldValue";
@@ -192,4 +434,11 @@ class ConfigurationTests {
             assertFalse(includeStaticConfiguration.fieldPredicate().test(finalField));
         }
     }
+
+    private record Contact(String email) {
+    }
+
+    @ImmutableForm
+    private static final class ImmutableAddress {
+    }
 }
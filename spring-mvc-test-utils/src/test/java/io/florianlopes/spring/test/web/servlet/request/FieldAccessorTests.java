@@ -0,0 +1,55 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FieldAccessorTests {
+
+    @Test
+    void readsPrivateField() throws NoSuchFieldException {
+        final FieldAccessor accessor = FieldAccessor.of(AddUserForm.class.getDeclaredField("firstName"));
+
+        assertThat(accessor.get(AddUserForm.builder().firstName("John").build())).isEqualTo("John");
+    }
+
+    @Test
+    void readsPrimitiveFieldWithoutBoxing() throws NoSuchFieldException {
+        final FieldAccessor accessor = FieldAccessor.of(AddUserForm.Address.class.getDeclaredField("streetNumber"));
+
+        assertThat(accessor.getInt(TestFixtures.anAddress())).isEqualTo(1);
+        assertThat(accessor.get(TestFixtures.anAddress())).isEqualTo(1);
+    }
+
+    @Test
+    void readsStaticField() throws NoSuchFieldException {
+        final FieldAccessor accessor = FieldAccessor.of(ConfigurationForm.class.getDeclaredField("STATIC_NAME"));
+
+        assertThat(accessor.get(new ConfigurationForm())).isEqualTo("static name");
+    }
+
+    @Test
+    void readsPropertyThroughGetter() throws NoSuchMethodException {
+        final FieldAccessor accessor = FieldAccessor.of("city", AddUserForm.Address.class.getMethod("getCity"));
+
+        assertThat(accessor.get(TestFixtures.anAddress())).isEqualTo("New York");
+    }
+
+    @Test
+    void readsPrimitivePropertyWithoutBoxing() throws NoSuchMethodException {
+        final FieldAccessor accessor = FieldAccessor.of("streetNumber", AddUserForm.Address.class.getMethod("getStreetNumber"));
+
+        assertThat(accessor.getInt(TestFixtures.anAddress())).isEqualTo(1);
+    }
+
+    @Test
+    void inaccessibleFieldThrowsIllegalStateException() throws NoSuchFieldException {
+        final Field sizeField = ArrayList.class.getDeclaredField("size");
+
+        assertThrows(IllegalStateException.class, () -> FieldAccessor.of(sizeField));
+    }
+}
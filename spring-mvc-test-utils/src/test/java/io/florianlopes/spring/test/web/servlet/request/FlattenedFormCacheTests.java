@@ -0,0 +1,50 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlattenedFormCacheTests {
+
+    private static final FlattenedFormCache.Parameters PARAMETERS =
+            new FlattenedFormCache.Parameters(new String[]{".name"}, new String[]{"value"});
+
+    @Test
+    void looksUpObjectsOverridingEqualsByEquality() {
+        final FlattenedFormCache cache = new FlattenedFormCache(16);
+        cache.put(new Contact("john@doe.com"), PARAMETERS);
+
+        assertThat(cache.get(new Contact("john@doe.com"))).isSameAs(PARAMETERS);
+        assertThat(cache.get(new Contact("jane@doe.com"))).isNull();
+    }
+
+    @Test
+    void looksUpOtherObjectsByIdentity() {
+        final FlattenedFormCache cache = new FlattenedFormCache(16);
+        final Object form = new Object();
+        cache.put(form, PARAMETERS);
+
+        assertThat(cache.get(form)).isSameAs(PARAMETERS);
+        assertThat(cache.get(new Object())).isNull();
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntries() {
+        final FlattenedFormCache cache = new FlattenedFormCache(2);
+        final Contact first = new Contact("first");
+        final Contact second = new Contact("second");
+        final Contact third = new Contact("third");
+        cache.put(first, PARAMETERS);
+        cache.put(second, PARAMETERS);
+        cache.get(first);
+        cache.put(third, PARAMETERS);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(first)).isNotNull();
+        assertThat(cache.get(second)).isNull();
+        assertThat(cache.get(third)).isNotNull();
+    }
+
+    private record Contact(String email) {
+    }
+}
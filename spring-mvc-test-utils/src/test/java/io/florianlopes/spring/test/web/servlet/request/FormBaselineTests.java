@@ -0,0 +1,137 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.format.support.DefaultFormattingConversionService;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockServletContext;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FormBaselineTests {
+
+    private static final String URL = "/test";
+
+    private final AddUserForm addUserForm = TestFixtures.aCompleteAddUserForm();
+    private final FormBaseline<AddUserForm> baseline = MockMvcRequestBuilderUtils.baseline(addUserForm);
+
+    @Test
+    void flattensBaselineForm() {
+        assertThat(baseline.parameters()).containsExactlyEntriesOf(FormFlattener.collectFields(addUserForm, Configuration.DEFAULT));
+    }
+
+    @Test
+    void unchangedCopyHasNoChanges() {
+        final FormDelta delta = baseline.diff(copyOf(addUserForm));
+
+        assertThat(delta.isEmpty()).isTrue();
+        assertThat(delta.parameters()).containsExactlyEntriesOf(baseline.parameters());
+    }
+
+    @Test
+    void changedFieldOnlyProducesChangedParameter() {
+        final AddUserForm modified = copyOf(addUserForm);
+        modified.setFirstName("Jane");
+
+        final FormDelta delta = baseline.diff(modified);
+
+        assertThat(delta.changed()).containsExactly(Map.entry("firstName", "Jane"));
+        assertThat(delta.removed()).isEmpty();
+        assertThat(delta.parameters()).containsExactlyEntriesOf(FormFlattener.collectFields(modified, Configuration.DEFAULT));
+    }
+
+    @Test
+    void changedNestedFieldProducesSameParametersAsFullFlattening() {
+        final AddUserForm modified = copyOf(addUserForm);
+        modified.setCurrentAddress(addUserForm.getCurrentAddress().withCity("Boston"));
+        modified.setDiplomas(List.of(new AddUserForm.Diploma("PhD", LocalDate.of(2028, 9, 4))));
+        modified.setBirthDate(null);
+
+        final FormDelta delta = baseline.diff(modified);
+
+        assertThat(delta.changed()).containsOnly(
+                Map.entry("currentAddress.city", "Boston"),
+                Map.entry("diplomas[0].name", "PhD"),
+                Map.entry("diplomas[0].date", "2028-09-04")
+        );
+        assertThat(delta.removed()).containsExactlyInAnyOrder("birthDate", "diplomas[1].name", "diplomas[1].date");
+        assertThat(delta.parameters()).containsExactlyInAnyOrderEntriesOf(FormFlattener.collectFields(modified, Configuration.DEFAULT));
+    }
+
+    @Test
+    void nullModifiedFormRemovesAllParameters() {
+        final FormDelta delta = baseline.diff(null);
+
+        assertThat(delta.changed()).isEmpty();
+        assertThat(delta.removed()).containsExactlyInAnyOrderElementsOf(baseline.parameters().keySet());
+        assertThat(delta.parameters()).isEmpty();
+    }
+
+    @Test
+    void overridesFieldWithItsFormatter() {
+        final Configuration config = Configuration.builder()
+                .withConversionService(new DefaultFormattingConversionService())
+                .build();
+        final FormBaseline<AddUserForm> formattedBaseline = MockMvcRequestBuilderUtils.baseline(addUserForm, config);
+
+        final FormDelta delta = formattedBaseline.with("birthDate", LocalDate.of(2020, 1, 31));
+
+        assertThat(formattedBaseline.parameters()).containsEntry("birthDate", "29.08.2016");
+        assertThat(delta.changed()).containsExactly(Map.entry("birthDate", "31.01.2020"));
+    }
+
+    @Test
+    void overridesSubtrees() {
+        final Map<String, Object> overrides = new LinkedHashMap<>();
+        overrides.put("currentAddress.linkedAddress", null);
+        overrides.put("formerAddresses[1]", TestFixtures.aLinkedAddress());
+        overrides.put("diplomasMap[MSC].name", "MBA");
+        overrides.put("captcha", "1234");
+
+        final FormDelta delta = baseline.with(overrides);
+
+        assertThat(delta.removed()).containsExactlyInAnyOrder(
+                "currentAddress.linkedAddress.streetNumber",
+                "currentAddress.linkedAddress.streetName",
+                "currentAddress.linkedAddress.postalCode",
+                "currentAddress.linkedAddress.city"
+        );
+        assertThat(delta.changed()).containsOnly(
+                Map.entry("formerAddresses[1].streetNumber", "42"),
+                Map.entry("formerAddresses[1].streetName", "Linked Street"),
+                Map.entry("formerAddresses[1].postalCode", "8888"),
+                Map.entry("formerAddresses[1].city", "Linked New York"),
+                Map.entry("diplomasMap[MSC].name", "MBA"),
+                Map.entry("captcha", "1234")
+        );
+        assertThat(delta.parameters()).containsEntry("currentAddress.city", "New York");
+    }
+
+    @Test
+    void emptyPathThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> baseline.with("", "value"));
+    }
+
+    @Test
+    void postsParameters() {
+        final MockHttpServletRequest request = baseline.with("name", "Smith")
+                .postForm(URL)
+                .buildRequest(new MockServletContext());
+
+        assertThat(request.getMethod()).isEqualTo(HttpMethod.POST.name());
+        assertThat(request.getParameter("name")).isEqualTo("Smith");
+        assertThat(request.getParameter("firstName")).isEqualTo("John");
+    }
+
+    private static AddUserForm copyOf(AddUserForm form) {
+        return new AddUserForm(form.getFirstName(), form.getName(), form.getIdentificationNumber(), form.getIdentificationNumberBigInt(),
+                form.getGender(), form.getBirthDate(), form.getCurrentAddress(), form.getUsernames(), form.getUsernamesArray(),
+                form.getDiplomas(), form.getFormerAddresses(), form.getMetadatas(), form.getDiplomasMap());
+    }
+}
@@ -0,0 +1,52 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FormFlattenedEventTests {
+
+    @Test
+    void emitsFlightRecorderEventsWhenEnabled(@TempDir Path tempDir) throws IOException {
+        final AddUserForm.Address address = TestFixtures.anAddress();
+        final List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(FormFlattenedEvent.class).withThreshold(Duration.ZERO);
+            recording.enable(FormFieldFormattedEvent.class).withThreshold(Duration.ZERO);
+            recording.start();
+            MockMvcRequestBuilderUtils.form(address).postProcessRequest(new MockHttpServletRequest());
+            recording.stop();
+            final Path dump = tempDir.resolve("flattening.jfr");
+            recording.dump(dump);
+            events = RecordingFile.readAllEvents(dump);
+        }
+
+        assertThat(events).filteredOn(event -> event.getEventType().getName().equals("io.florianlopes.spring.test.FormFlattened"))
+                .singleElement()
+                .satisfies(event -> {
+                    assertThat(event.getClass("formClass").getName()).isEqualTo(AddUserForm.Address.class.getName());
+                    assertThat(event.getLong("parameters")).isEqualTo(4);
+                    assertThat(event.getLong("nodes")).isEqualTo(5);
+                    assertThat(event.getLong("bytes")).isEqualTo("streetNumber=1streetName=StreetpostalCode=5222city=New York".length());
+                });
+        assertThat(events).filteredOn(event -> event.getEventType().getName().equals("io.florianlopes.spring.test.FormFieldFormatted"))
+                .extracting(event -> event.getString("field"))
+                .containsExactly("streetNumber", "streetName", "postalCode", "city");
+    }
+
+    @Test
+    void recordsNothingWhenDisabled() {
+        assertThat(FormFlattenedEvent.enabled()).isFalse();
+        assertThat(FlatteningRecorder.isEnabled(Configuration.DEFAULT)).isFalse();
+    }
+}
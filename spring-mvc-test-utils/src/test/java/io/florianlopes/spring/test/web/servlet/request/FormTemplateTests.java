@@ -0,0 +1,101 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockServletContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FormTemplateTests {
+
+    private static final String URL = "/test";
+
+    private final FormTemplate<AddUserForm> template = MockMvcRequestBuilderUtils.prepare(AddUserForm.class);
+
+    @Test
+    void producesSameParametersAsPostForm() {
+        final AddUserForm addUserForm = TestFixtures.aCompleteAddUserForm();
+
+        final MockHttpServletRequest templateRequest = template.postForm(URL, addUserForm).buildRequest(new MockServletContext());
+        final MockHttpServletRequest request = MockMvcRequestBuilderUtils.postForm(URL, addUserForm).buildRequest(new MockServletContext());
+
+        assertThat(templateRequest.getMethod()).isEqualTo(HttpMethod.POST.name());
+        assertThat(templateRequest.getParameterMap()).containsExactlyInAnyOrderEntriesOf(request.getParameterMap());
+    }
+
+    @Test
+    void compilesFormClassWhateverTheConfiguration() {
+        final List<FlatteningMetrics> metrics = new ArrayList<>();
+        final Configuration config = Configuration.builder()
+                .compileForms(false)
+                .withFlatteningListener(metrics::add)
+                .build();
+
+        MockMvcRequestBuilderUtils.prepare(AddUserForm.Address.class, config).apply(TestFixtures.anAddress());
+        FormFlattener.writeFields(TestFixtures.anAddress(), config, (name, value) -> {
+        });
+
+        assertThat(metrics).hasSize(2);
+        assertThat(metrics.get(0).reflectiveReads()).isZero();
+        assertThat(metrics.get(1).reflectiveReads()).isPositive();
+    }
+
+    @Test
+    void appliesToManyInstances() {
+        final List<Map<String, String>> parameters = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            parameters.add(template.apply(AddUserForm.builder().firstName("John " + i).build()));
+        }
+
+        assertThat(parameters).containsExactly(
+                Map.of("firstName", "John 0"),
+                Map.of("firstName", "John 1"),
+                Map.of("firstName", "John 2")
+        );
+    }
+
+    @Test
+    void putsForm() {
+        final MockHttpServletRequest request = template.putForm(URL, AddUserForm.builder().name("Doe").build())
+                .buildRequest(new MockServletContext());
+
+        assertThat(request.getMethod()).isEqualTo(HttpMethod.PUT.name());
+        assertThat(request.getParameter("name")).isEqualTo("Doe");
+    }
+
+    @Test
+    void addsParametersWithPostProcessor() {
+        final MockHttpServletRequest request = template.form(AddUserForm.builder().name("Doe").build())
+                .postProcessRequest(new MockHttpServletRequest());
+
+        assertThat(request.getParameter("name")).isEqualTo("Doe");
+    }
+
+    @Test
+    void flattensSubclassInstancesReflectively() {
+        final AddUserForm addUserForm = new AddUserForm() {
+            private final String nickname = "JD";
+        };
+        addUserForm.setName("Doe");
+
+        assertThat(template.apply(addUserForm))
+                .containsEntry("name", "Doe")
+                .containsEntry("nickname", "JD");
+    }
+
+    @Test
+    void nullFormWritesNoParameters() {
+        assertThat(template.apply(null)).isEmpty();
+    }
+
+    @Test
+    void nullFormClassThrowsNullPointerException() {
+        assertThrows(NullPointerException.class, () -> MockMvcRequestBuilderUtils.prepare(null));
+    }
+}
@@ -0,0 +1,70 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.web.util.UriUtils;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FormUrlEncoderTests {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "plain", "a b+c", "a.b-c*d_e~f", "name[0].key", "50% & more = é", "中文", "😀 emoji", "\ud800 unpaired", "unpaired \udc00"})
+    void encodesLikeUrlEncoder(String value) {
+        assertThat(FormUrlEncoder.forBody().encode(value)).asString(StandardCharsets.US_ASCII)
+                .isEqualTo(URLEncoder.encode(value, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void encodesParametersIntoBodyOfExactSize() {
+        final FormUrlEncoder.Body body = FormUrlEncoder.forBody().newBody();
+        body.accept("names[0]", "John Doe");
+        body.accept("city", "Zürich");
+        body.accept("empty", "");
+
+        assertThat(body.toByteArray()).asString(StandardCharsets.US_ASCII)
+                .isEqualTo("names%5B0%5D=John+Doe&city=Z%C3%BCrich&empty=");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"a b+c", "50% & more = é", "😀 emoji"})
+    void encodesQueriesDecodedByUriUtils(String value) {
+        final String encoded = new String(FormUrlEncoder.forQuery().encode(value), StandardCharsets.US_ASCII);
+
+        assertThat(encoded).doesNotContain(" ", "+");
+        assertThat(UriUtils.decode(encoded, StandardCharsets.UTF_8)).isEqualTo(value);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"firstName", "items[0]", "items[12].name", "grid[0][1]", "labels[en][title]", "a[", "a]b[c d]é", "[0]"})
+    void encodesNamesLikeUrlEncoder(String name) {
+        final FormUrlEncoder encoder = FormUrlEncoder.forBody();
+
+        assertThat(encoder.encodedName(name)).asString(StandardCharsets.US_ASCII)
+                .isEqualTo(URLEncoder.encode(name, StandardCharsets.UTF_8));
+        assertThat(encoder.encodedName(name)).isEqualTo(encoder.encodedName(name));
+    }
+
+    @Test
+    void indexedNamesDoNotFillTheNameCache() {
+        final FormUrlEncoder encoder = FormUrlEncoder.forBody();
+        final FormUrlEncoder.Body largeList = encoder.newBody();
+        for (int i = 0; i < 10_000; i++) {
+            largeList.accept("items[" + i + "].name", "item");
+        }
+
+        assertThat(encoder.encodedName("currentAddress.city")).isSameAs(encoder.encodedName("currentAddress.city"));
+        assertThat(encoder.encodedName("items[10000].name")).asString(StandardCharsets.US_ASCII)
+                .isEqualTo("items%5B10000%5D.name");
+    }
+
+    @Test
+    void encodesEmptyBody() {
+        assertThat(FormUrlEncoder.forBody().newBody().toByteArray()).isEmpty();
+    }
+}
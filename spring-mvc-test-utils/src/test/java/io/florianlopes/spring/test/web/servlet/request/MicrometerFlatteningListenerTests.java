@@ -0,0 +1,40 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MicrometerFlatteningListenerTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final Configuration config = Configuration.builder()
+            .withFlatteningListener(new MicrometerFlatteningListener(registry))
+            .build();
+
+    @Test
+    void recordsMetricsTaggedWithFormClass() {
+        MockMvcRequestBuilderUtils.writeForm(TestFixtures.aCompleteAddUserForm(), config, (name, value) -> {
+        });
+        MockMvcRequestBuilderUtils.writeForm(TestFixtures.aCompleteAddUserForm(), config, (name, value) -> {
+        });
+
+        final Tags tags = Tags.of("form", AddUserForm.class.getName());
+        assertThat(registry.get("form.flattening").tags(tags).timer().count()).isEqualTo(2);
+        assertThat(registry.get("form.flattening").tags(tags).timer().totalTime(TimeUnit.NANOSECONDS)).isPositive();
+        assertThat(registry.get("form.flattening.phase").tags(tags.and("phase", "formatting")).timer().count()).isEqualTo(2);
+        assertThat(registry.get("form.flattening.parameters").tags(tags).counter().count()).isEqualTo(72);
+        assertThat(registry.get("form.flattening.formatter.calls").tags(tags).counter().count()).isEqualTo(60);
+        assertThat(registry.get("form.flattening.reads").tags(tags).counter().count()).isPositive();
+        assertThat(registry.get("form.flattening.nodes").tags(tags).counter().count()).isPositive();
+    }
+
+    @Test
+    void registersGlobalRegistryListenerWhenMicrometerIsPresent() {
+        assertThat(Configuration.builder().withMicrometerMetrics().build().flatteningListener()).isNotNull();
+        assertThat(Configuration.builder().build().flatteningListener()).isNull();
+    }
+}
@@ -1,24 +1,60 @@
 package io.florianlopes.spring.test.web.servlet.request;
 
 import io.florianlopes.spring.test.web.servlet.request.assertion.RequestParametersAssert;
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import it.unimi.dsi.fastutil.doubles.DoubleList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
 import jakarta.servlet.ServletContext;
+import lombok.Data;
+import lombok.NoArgsConstructor;
 import nl.altindag.log.LogCaptor;
+import org.eclipse.collections.api.factory.primitive.DoubleLists;
+import org.eclipse.collections.api.factory.primitive.IntLists;
+import org.eclipse.collections.api.factory.primitive.LongLists;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.support.DefaultFormattingConversionService;
 import org.springframework.http.HttpMethod;
 import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.mock.web.MockMultipartHttpServletRequest;
 import org.springframework.mock.web.MockServletContext;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMultipartHttpServletRequestBuilder;
+import org.springframework.web.bind.ServletRequestDataBinder;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.beans.PropertyEditorSupport;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -282,6 +318,42 @@ public class MockMvcRequestBuilderUtilsTests {
         assertThat(request.getParameter("identificationNumberBigInt")).isEqualTo("10");
     }
 
+    @Test
+    void writesFormParametersToSink() {
+        final AddUserForm addUserForm = AddUserForm.builder()
+                .firstName("John")
+                .usernames(List.of("john.doe", "jdoe"))
+                .currentAddress(TestFixtures.anAddress())
+                .build();
+        final Map<String, String> parameters = new HashMap<>();
+
+        MockMvcRequestBuilderUtils.writeForm(addUserForm, parameters::put);
+
+        assertThat(parameters).containsOnly(
+                Map.entry("firstName", "John"),
+                Map.entry("usernames[0]", "john.doe"),
+                Map.entry("usernames[1]", "jdoe"),
+                Map.entry("currentAddress.streetNumber", "1"),
+                Map.entry("currentAddress.streetName", "Street"),
+                Map.entry("currentAddress.postalCode", "5222"),
+                Map.entry("currentAddress.city", "New York")
+        );
+    }
+
+    @Test
+    void nullFormWritesNoParametersToSink() {
+        final Map<String, String> parameters = new HashMap<>();
+
+        MockMvcRequestBuilderUtils.writeForm(null, parameters::put);
+
+        assertThat(parameters).isEmpty();
+    }
+
+    @Test
+    void nullSinkThrowsNullPointerException() {
+        assertThrows(NullPointerException.class, () -> MockMvcRequestBuilderUtils.writeForm(new AddUserForm(), null));
+    }
+
     @Test
     void logsEveryFieldAddedToHttpRequest() {
         final int numberOfFormFields = 36;
@@ -294,6 +366,1206 @@ public class MockMvcRequestBuilderUtilsTests {
                 .hasSize(numberOfFormFields);
     }
 
+    @Nested
+    class ObjectGraphs {
+
+        @Test
+        void cycleThrowsIllegalStateExceptionByDefault() {
+            final AddUserForm addUserForm = AddUserForm.builder()
+                    .currentAddress(aCyclicAddress())
+                    .build();
+
+            final IllegalStateException exception = assertThrows(IllegalStateException.class,
+                    () -> MockMvcRequestBuilderUtils.postForm(POST_FORM_URL, addUserForm));
+            assertThat(exception).hasMessageContaining("currentAddress.linkedAddress.linkedAddress");
+        }
+
+        @Test
+        void cycleIsTruncatedWithTruncatePolicy() {
+            final Configuration config = Configuration.builder()
+                    .cyclePolicy(CyclePolicy.TRUNCATE)
+                    .build();
+            final AddUserForm addUserForm = AddUserForm.builder()
+                    .currentAddress(aCyclicAddress())
+                    .build();
+
+            final MockHttpServletRequest request =
+                    MockMvcRequestBuilderUtils.postForm(POST_FORM_URL, addUserForm, config).buildRequest(servletContext);
+
+            assertThat(request.getParameter("currentAddress.city")).isEqualTo("New York");
+            assertThat(request.getParameter("currentAddress.linkedAddress.city")).isEqualTo("Linked New York");
+            assertThat(request.getParameterMap().keySet()).noneMatch(name -> name.contains("linkedAddress.linkedAddress"));
+        }
+
+        @Test
+        void cycleIsDetectedInCompiledForms() {
+            final Configuration config = Configuration.builder()
+                    .compileForms(true)
+                    .build();
+            final AddUserForm addUserForm = AddUserForm.builder()
+                    .currentAddress(aCyclicAddress())
+                    .build();
+
+            assertThrows(IllegalStateException.class,
+                    () -> MockMvcRequestBuilderUtils.postForm(POST_FORM_URL, addUserForm, config));
+        }
+
+        @Test
+        void sharedObjectIsWrittenUnderEveryPath() {
+            final AddUserForm.Address address = TestFixtures.anAddress();
+            final AddUserForm addUserForm = AddUserForm.builder()
+                    .currentAddress(address)
+                    .formerAddresses(new AddUserForm.Address[]{address, address})
+                    .build();
+
+            final MockHttpServletRequest request =
+                    MockMvcRequestBuilderUtils.postForm(POST_FORM_URL, addUserForm).buildRequest(servletContext);
+
+            assertThat(request.getParameter("currentAddress.city")).isEqualTo("New York");
+            assertThat(request.getParameter("formerAddresses[0].city")).isEqualTo("New York");
+            assertThat(request.getParameter("formerAddresses[1].city")).isEqualTo("New York");
+            assertThat(request.getParameter("formerAddresses[1].streetNumber")).isEqualTo("1");
+        }
+
+        @Test
+        void deeplyNestedObjectsDoNotOverflowStack() {
+            final int depth = 2_000;
+            AddUserForm.Address address = TestFixtures.anAddress();
+            for (int i = 1; i < depth; i++) {
+                address = new AddUserForm.Address(1, "Street", 5222, "City " + i, address);
+            }
+            final AddUserForm addUserForm = AddUserForm.builder()
+                    .currentAddress(address)
+                    .build();
+            final AtomicInteger parameterCount = new AtomicInteger();
+
+            MockMvcRequestBuilderUtils.writeForm(addUserForm, (name, value) -> parameterCount.incrementAndGet());
+
+            assertThat(parameterCount).hasValue(depth * 4);
+        }
+
+        private AddUserForm.Address aCyclicAddress() {
+            final AddUserForm.Address address = TestFixtures.anAddress();
+            final AddUserForm.Address linkedAddress = address.withCity("Linked New York").withLinkedAddress(address);
+            address.setLinkedAddress(linkedAddress);
+            return address;
+        }
+    }
+
+    @Nested
+    class ParallelFlattening {
+
+        private final Configuration parallelConfig = Configuration.builder()
+                .parallelThreshold(100)
+                .build();
+
+        @Test
+        void largeCollectionsProduceSameParametersInSameOrder() {
+            final List<AddUserForm.Diploma> diplomas = new ArrayList<>();
+            final List<String> usernames = new ArrayList<>();
+            final Map<String, AddUserForm.Diploma> diplomasMap = new LinkedHashMap<>();
+            for (int i = 0; i < 5_000; i++) {
+                final AddUserForm.Diploma diploma = new AddUserForm.Diploma("Diploma " + i, LocalDate.of(2000, 1, 1).plusDays(i));
+                diplomas.add(diploma);
+                usernames.add("user" + i);
+                diplomasMap.put("diploma" + i, diploma);
+            }
+            final AddUserForm addUserForm = AddUserForm.builder()
+                    .firstName("John")
+                    .diplomas(diplomas)
+                    .usernames(usernames)
+                    .diplomasMap(diplomasMap)
+                    .build();
+
+            final List<Map.Entry<String, String>> parallelParameters = new ArrayList<>();
+            final List<Map.Entry<String, String>> sequentialParameters = new ArrayList<>();
+            MockMvcRequestBuilderUtils.writeForm(addUserForm, parallelConfig, (name, value) -> parallelParameters.add(Map.entry(name, value)));
+            MockMvcRequestBuilderUtils.writeForm(addUserForm, (name, value) -> sequentialParameters.add(Map.entry(name, value)));
+
+            assertThat(parallelParameters)
+                    .hasSize(1 + 5_000 * 5)
+                    .containsExactlyElementsOf(sequentialParameters)
+                    .contains(Map.entry("diplomas[4999].name", "Diploma 4999"), Map.entry("diplomasMap[diploma42].name", "Diploma 42"));
+        }
+
+        @Test
+        void cycleInLargeCollectionIsDetected() {
+            final AddUserForm.Address[] formerAddresses = new AddUserForm.Address[200];
+            Arrays.fill(formerAddresses, TestFixtures.anAddress());
+            formerAddresses[150] = TestFixtures.anAddress();
+            formerAddresses[150].setLinkedAddress(formerAddresses[150]);
+            final AddUserForm addUserForm = AddUserForm.builder()
+                    .formerAddresses(formerAddresses)
+                    .build();
+
+            assertThrows(IllegalStateException.class,
+                    () -> MockMvcRequestBuilderUtils.writeForm(addUserForm, parallelConfig, (name, value) -> {
+                    }));
+        }
+    }
+
+    @Nested
+    class TraversalLimitsTests {
+
+        @Test
+        void nodesDeeperThanMaxDepthAreSkipped() {
+            final Configuration config = Configuration.builder()
+                    .maxDepth(2, LimitPolicy.TRUNCATE)
+                    .build();
+            final AddUserForm.Address address = TestFixtures.anAddress().withLinkedAddress(TestFixtures.anAddress());
+            final AddUserForm addUserForm = AddUserForm.builder()
+                    .firstName("John")
+                    .currentAddress(address)
+                    .formerAddresses(new AddUserForm.Address[]{address})
+                    .build();
+
+            final Map<String, String> parameters = new LinkedHashMap<>();
+            MockMvcRequestBuilderUtils.writeForm(addUserForm, config, parameters::put);
+
+            assertThat(parameters).containsOnlyKeys("firstName", "currentAddress.streetNumber", "currentAddress.streetName",
+                    "currentAddress.postalCode", "currentAddress.city");
+        }
+
+        @Test
+        void maxDepthThrowsIllegalStateExceptionWithFailPolicy() {
+            final Configuration config = Configuration.builder()
+                    .maxDepth(2, LimitPolicy.FAIL)
+                    .build();
+            final AddUserForm addUserForm = AddUserForm.builder()
+                    .currentAddress(TestFixtures.anAddress().withLinkedAddress(TestFixtures.anAddress()))
+                    .build();
+
+            final IllegalStateException exception = assertThrows(IllegalStateException.class,
+                    () -> MockMvcRequestBuilderUtils.postForm(POST_FORM_URL, addUserForm, config));
+            assertThat(exception).hasMessageContaining("currentAddress.linkedAddress");
+        }
+
+        @Test
+        void deeplyNestedObjectsAreCutOffAtMaxDepth() {
+            AddUserForm.Address address = TestFixtures.anAddress();
+            for (int i = 1; i < 2_000; i++) {
+                address = new AddUserForm.Address(1, "Street", 5222, "City " + i, address);
+            }
+            final Configuration config = Configuration.builder()
+                    .maxDepth(11, LimitPolicy.TRUNCATE)
+                    .build();
+            final AtomicInteger parameterCount = new AtomicInteger();
+
+            MockMvcRequestBuilderUtils.writeForm(AddUserForm.builder().currentAddress(address).build(), config,
+                    (name, value) -> parameterCount.incrementAndGet());
+
+            assertThat(parameterCount).hasValue(10 * 4);
+        }
+
+        @Test
+        void traversalStopsAtMaxParameters() {
+            final Configuration config = Configuration.builder()
+                    .maxParameters(10, LimitPolicy.TRUNCATE)
+                    .build();
+            final List<String> names = new ArrayList<>();
+            final List<String> allNames = new ArrayList<>();
+
+            MockMvcRequestBuilderUtils.writeForm(TestFixtures.aCompleteAddUserForm(), config, (name, value) -> names.add(name));
+            MockMvcRequestBuilderUtils.writeForm(TestFixtures.aCompleteAddUserForm(), (name, value) -> allNames.add(name));
+
+            assertThat(names).containsExactlyElementsOf(allNames.subList(0, 10));
+        }
+
+        @Test
+        void maxParametersThrowsIllegalStateExceptionWithFailPolicy() {
+            final Configuration config = Configuration.builder()
+                    .maxParameters(10, LimitPolicy.FAIL)
+                    .build();
+
+            assertThrows(IllegalStateException.class,
+                    () -> MockMvcRequestBuilderUtils.postForm(POST_FORM_URL, TestFixtures.aCompleteAddUserForm(), config));
+        }
+
+        @Test
+        void maxParametersIsEnforcedOnParallelCollections() {
+            final Configuration config = Configuration.builder()
+                    .parallelThreshold(100)
+                    .maxParameters(1_000, LimitPolicy.TRUNCATE)
+                    .build();
+            final List<String> usernames = new ArrayList<>();
+            for (int i = 0; i < 5_000; i++) {
+                usernames.add("user" + i);
+            }
+            final List<String> names = new ArrayList<>();
+
+            MockMvcRequestBuilderUtils.writeForm(AddUserForm.builder().usernames(usernames).build(), config,
+                    (name, value) -> names.add(name));
+
+            assertThat(names).hasSize(1_000).endsWith("usernames[999]");
+        }
+
+        @Test
+        void collectionsAreTruncatedToMaxCollectionSize() {
+            final Configuration config = Configuration.builder()
+                    .maxCollectionSize(2, LimitPolicy.TRUNCATE)
+                    .build();
+            final AddUserForm addUserForm = AddUserForm.builder()
+                    .usernames(List.of("john", "jane", "jack"))
+                    .usernamesArray(new String[]{"john", "jane", "jack"})
+                    .metadatas(new LinkedHashMap<>(Map.of("a", "1")))
+                    .build();
+            addUserForm.getMetadatas().put("b", "2");
+            addUserForm.getMetadatas().put("c", "3");
+
+            final Map<String, String> parameters = new LinkedHashMap<>();
+            MockMvcRequestBuilderUtils.writeForm(addUserForm, config, parameters::put);
+
+            assertThat(parameters).containsOnlyKeys("usernames[0]", "usernames[1]", "usernamesArray[0]", "usernamesArray[1]",
+                    "metadatas[a]", "metadatas[b]");
+        }
+
+        @Test
+        void collectionsAreSampledToMaxCollectionSize() {
+            final Configuration config = Configuration.builder()
+                    .maxCollectionSize(4, LimitPolicy.SAMPLE)
+                    .parallelThreshold(5)
+                    .build();
+            final List<String> usernames = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                usernames.add("user" + i);
+            }
+
+            final Map<String, String> parameters = new LinkedHashMap<>();
+            MockMvcRequestBuilderUtils.writeForm(AddUserForm.builder().usernames(usernames).build(), config, parameters::put);
+
+            assertThat(parameters).containsExactly(Map.entry("usernames[0]", "user0"), Map.entry("usernames[25]", "user25"),
+                    Map.entry("usernames[50]", "user50"), Map.entry("usernames[75]", "user75"));
+        }
+
+        @Test
+        void maxCollectionSizeThrowsIllegalStateExceptionWithFailPolicy() {
+            final Configuration config = Configuration.builder()
+                    .maxCollectionSize(2, LimitPolicy.FAIL)
+                    .build();
+            final AddUserForm addUserForm = AddUserForm.builder()
+                    .usernames(List.of("john", "jane", "jack"))
+                    .build();
+
+            final IllegalStateException exception = assertThrows(IllegalStateException.class,
+                    () -> MockMvcRequestBuilderUtils.postForm(POST_FORM_URL, addUserForm, config));
+            assertThat(exception).hasMessageContaining("usernames");
+        }
+
+        @Test
+        void traversalStopsAtMaxValueBytes() {
+            final Configuration config = Configuration.builder()
+                    .maxValueBytes(10, LimitPolicy.TRUNCATE)
+                    .build();
+            final AddUserForm addUserForm = AddUserForm.builder()
+                    .firstName("Zoé")
+                    .name("Doe")
+                    .usernames(List.of("john"))
+                    .build();
+
+            final Map<String, String> parameters = new LinkedHashMap<>();
+            MockMvcRequestBuilderUtils.writeForm(addUserForm, config, parameters::put);
+
+            assertThat(parameters).containsOnlyKeys("firstName", "name");
+        }
+
+        @Test
+        void limitedFormsAreNotCompiled() {
+            final Configuration config = Configuration.builder()
+                    .compileForms(true)
+                    .maxCollectionSize(1, LimitPolicy.TRUNCATE)
+                    .build();
+            final AddUserForm addUserForm = AddUserForm.builder()
+                    .usernames(List.of("john", "jane"))
+                    .build();
+
+            final Map<String, String> parameters = new LinkedHashMap<>();
+            MockMvcRequestBuilderUtils.writeForm(addUserForm, config, parameters::put);
+
+            assertThat(parameters).containsOnlyKeys("usernames[0]");
+        }
+    }
+
+    @Nested
+    class Batches {
+
+        @Test
+        void postFormsProducesSameRequestsAsPostForm() {
+            final List<AddUserForm> forms = List.of(TestFixtures.aCompleteAddUserForm(), AddUserForm.builder().firstName("Jane").build());
+
+            final List<MockHttpServletRequest> requests = MockMvcRequestBuilderUtils.postForms(POST_FORM_URL, forms)
+                    .map(builder -> builder.buildRequest(servletContext))
+                    .toList();
+
+            assertThat(requests).hasSize(2);
+            for (int i = 0; i < forms.size(); i++) {
+                final MockHttpServletRequest expected = MockMvcRequestBuilderUtils.postForm(POST_FORM_URL, forms.get(i))
+                        .buildRequest(servletContext);
+                assertThat(requests.get(i).getMethod()).isEqualTo(HttpMethod.POST.name());
+                assertThat(requests.get(i).getPathInfo()).isEqualTo(POST_FORM_URL);
+                assertThat(requests.get(i).getContentType()).isEqualTo(expected.getContentType());
+                assertThat(requests.get(i).getParameterMap()).containsExactlyEntriesOf(expected.getParameterMap());
+            }
+        }
+
+        @Test
+        void putFormsUsesPutMethod() {
+            final MockHttpServletRequest request = MockMvcRequestBuilderUtils.putForms(POST_FORM_URL, Stream.of(new AddUserForm()))
+                    .findFirst()
+                    .orElseThrow()
+                    .buildRequest(servletContext);
+
+            assertThat(request.getMethod()).isEqualTo(HttpMethod.PUT.name());
+        }
+
+        @Test
+        void formsOfDifferentClassesAndNullForms() {
+            final ConfigurationForm configurationForm = new ConfigurationForm();
+            configurationForm.setTransientName("transientName");
+            final List<MockHttpServletRequest> requests = MockMvcRequestBuilderUtils.postForms(POST_FORM_URL,
+                            Arrays.asList(AddUserForm.builder().firstName("John").build(), null, configurationForm),
+                            Configuration.builder().includeTransient(true).build())
+                    .map(builder -> builder.buildRequest(servletContext))
+                    .toList();
+
+            assertThat(requests.get(0).getParameter("firstName")).isEqualTo("John");
+            assertThat(requests.get(1).getParameterMap()).isEmpty();
+            assertThat(requests.get(2).getParameter("transientName")).isEqualTo("transientName");
+        }
+
+        @Test
+        void formsAreFlattenedLazily() {
+            final AtomicInteger flattened = new AtomicInteger();
+            final Stream<AddUserForm> forms = Stream.generate(() -> {
+                flattened.incrementAndGet();
+                return AddUserForm.builder().firstName("John").build();
+            });
+
+            final MockHttpServletRequest request = MockMvcRequestBuilderUtils.postForms(POST_FORM_URL, forms)
+                    .skip(2)
+                    .findFirst()
+                    .orElseThrow()
+                    .buildRequest(servletContext);
+
+            assertThat(request.getParameter("firstName")).isEqualTo("John");
+            assertThat(flattened).hasValue(3);
+        }
+
+        @Test
+        void formAllProducesOnePostProcessorPerForm() {
+            final List<MockHttpServletRequest> requests = MockMvcRequestBuilderUtils.formAll(List.of(
+                            AddUserForm.builder().firstName("John").build(),
+                            AddUserForm.builder().firstName("Jane").build()))
+                    .map(postProcessor -> postProcessor.postProcessRequest(new MockHttpServletRequest()))
+                    .toList();
+
+            assertThat(requests).extracting(request -> request.getParameter("firstName")).containsExactly("John", "Jane");
+        }
+
+        @Test
+        void invalidUrlThrowsIllegalArgumentException() {
+            final List<AddUserForm> forms = List.of(new AddUserForm());
+
+            assertThrows(IllegalArgumentException.class, () -> MockMvcRequestBuilderUtils.postForms(null, forms));
+            assertThrows(IllegalArgumentException.class, () -> MockMvcRequestBuilderUtils.putForms("test", forms));
+        }
+    }
+
+    @Nested
+    class Memoization {
+
+        private final Configuration memoizingConfig = Configuration.builder()
+                .memoize(16)
+                .immutableTypes(type -> type == AddUserForm.Address.class)
+                .build();
+
+        @Test
+        void producesSameParametersAsWithoutMemoization() {
+            final AddUserForm addUserForm = TestFixtures.aCompleteAddUserForm();
+
+            final Map<String, String> firstParameters = FormFlattener.collectFields(addUserForm, memoizingConfig);
+            final Map<String, String> secondParameters = FormFlattener.collectFields(addUserForm, memoizingConfig);
+
+            assertThat(firstParameters).containsExactlyEntriesOf(FormFlattener.collectFields(addUserForm, Configuration.DEFAULT));
+            assertThat(secondParameters).containsExactlyEntriesOf(firstParameters);
+        }
+
+        @Test
+        void reusesParametersOfSharedImmutableObjects() {
+            final AddUserForm.Address address = TestFixtures.anAddress();
+            final MockHttpServletRequest firstRequest = MockMvcRequestBuilderUtils.postForm(POST_FORM_URL,
+                            AddUserForm.builder().currentAddress(address).build(), memoizingConfig)
+                    .buildRequest(servletContext);
+            final MockHttpServletRequest secondRequest = MockMvcRequestBuilderUtils.postForm(POST_FORM_URL,
+                            AddUserForm.builder().firstName("Jane").formerAddresses(new AddUserForm.Address[]{address}).build(),
+                            memoizingConfig)
+                    .buildRequest(servletContext);
+
+            assertThat(memoizingConfig.flattenedForms().size()).isEqualTo(1);
+            assertThat(firstRequest.getParameter("currentAddress.city")).isEqualTo("New York");
+            assertThat(secondRequest.getParameter("formerAddresses[0].city")).isEqualTo("New York");
+            assertThat(secondRequest.getParameter("formerAddresses[0].streetNumber")).isEqualTo("1");
+            assertThat(secondRequest.getParameter("firstName")).isEqualTo("Jane");
+        }
+
+        @Test
+        void recordsAreNotMemoizedUnlessDeclaredImmutable() {
+            final AccountForm account = new AccountForm();
+            account.setLogin("jdoe");
+            final Subscription subscription = new Subscription("premium", account);
+
+            assertThat(FormFlattener.collectFields(subscription, memoizingConfig)).containsEntry("account.login", "jdoe");
+            account.setLogin("jsmith");
+
+            assertThat(FormFlattener.collectFields(subscription, memoizingConfig)).containsEntry("account.login", "jsmith");
+            assertThat(memoizingConfig.memoizes(Subscription.class)).isFalse();
+        }
+
+        @Test
+        void memoizesRootForms() {
+            final Configuration config = Configuration.builder()
+                    .memoize(16)
+                    .compileForms(true)
+                    .immutableTypes(type -> type == AddUserForm.class)
+                    .build();
+            final AddUserForm addUserForm = TestFixtures.aCompleteAddUserForm();
+
+            final Map<String, String> parameters = FormFlattener.collectFields(addUserForm, config);
+
+            assertThat(config.flattenedForms().size()).isEqualTo(1);
+            assertThat(FormFlattener.collectFields(addUserForm, config)).containsExactlyEntriesOf(parameters);
+        }
+    }
+
+    @Nested
+    class PropertyAccessTests {
+
+        private final Configuration propertyConfig = Configuration.builder()
+                .propertyAccess(PropertyAccess.PROPERTY)
+                .build();
+
+        @Test
+        void readsRecordComponentsWithTheirAnnotations() {
+            final SignUpForm form = new SignUpForm("John@Doe.com", LocalDate.of(2016, 8, 29), TestFixtures.anAddress());
+
+            final Map<String, String> parameters = FormFlattener.collectFields(form, Configuration.builder()
+                    .propertyAccess(PropertyAccess.PROPERTY)
+                    .withConversionService(new DefaultFormattingConversionService())
+                    .build());
+
+            assertThat(parameters).containsExactly(
+                    Map.entry("email", "john@doe.com"),
+                    Map.entry("birthDate", "29.08.2016"),
+                    Map.entry("address.streetNumber", "1"),
+                    Map.entry("address.streetName", "Street"),
+                    Map.entry("address.postalCode", "5222"),
+                    Map.entry("address.city", "New York")
+            );
+        }
+
+        @Test
+        void readsBindableBeanProperties() {
+            final AccountForm form = new AccountForm();
+            form.setLogin("jdoe");
+            form.getAddress().setCity("Chicago");
+
+            final Map<String, String> parameters = FormFlattener.collectFields(form, propertyConfig);
+
+            assertThat(parameters)
+                    .containsEntry("login", "JDOE")
+                    .containsEntry("address.city", "Chicago")
+                    .containsEntry("address.streetNumber", "0")
+                    .doesNotContainKeys("loginLength", "secret");
+            assertThat(parameters.keySet().iterator().next()).isEqualTo("login");
+        }
+
+        @Test
+        void compiledFormsReadProperties() {
+            final AccountForm form = new AccountForm();
+            form.setLogin("jdoe");
+            final Configuration compiledConfig = Configuration.builder()
+                    .propertyAccess(PropertyAccess.PROPERTY)
+                    .compileForms(true)
+                    .build();
+
+            assertThat(FormFlattener.collectFields(form, compiledConfig))
+                    .containsExactlyEntriesOf(FormFlattener.collectFields(form, propertyConfig));
+        }
+
+        @Test
+        void skipsPropertiesBackedByExcludedFields() {
+            final AccountForm form = new AccountForm();
+            form.setLogin("jdoe");
+
+            final Map<String, String> parameters = FormFlattener.collectFields(form, Configuration.builder()
+                    .propertyAccess(PropertyAccess.PROPERTY)
+                    .fieldPredicate(field -> !field.getName().equals("login"))
+                    .build());
+
+            assertThat(parameters).doesNotContainKey("login").containsKey("address.streetNumber");
+        }
+    }
+
+    record SignUpForm(String email, @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate birthDate, AddUserForm.Address address) {
+
+        // Accessors are read instead of the fields
+        @Override
+        public String email() {
+            return email.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    record Subscription(String plan, AccountForm account) {
+    }
+
+    static class AccountForm {
+
+        private String login;
+        // Internal state, not bound by the data binder as it has no property
+        private final String secret = "secret";
+        private final AddUserForm.Address address = new AddUserForm.Address();
+
+        public String getLogin() {
+            return login != null ? login.toUpperCase(Locale.ROOT) : null;
+        }
+
+        public void setLogin(String login) {
+            this.login = login;
+        }
+
+        public int getLoginLength() {
+            return login != null ? login.length() : 0;
+        }
+
+        public AddUserForm.Address getAddress() {
+            return address;
+        }
+    }
+
+    @Nested
+    class PrimitiveSequences {
+
+        @Test
+        void primitiveArraysAreAddedAsIndexedParameters() {
+            final AnalyticsForm form = new AnalyticsForm();
+            form.counts = new int[]{3, 1_000_000};
+            form.timestamps = new long[]{1_700_000_000_000L};
+            form.ratios = new double[]{0.5, 1.25};
+            form.flags = new boolean[]{true, false};
+            form.initials = new char[]{'J'};
+
+            final Map<String, String> parameters = new LinkedHashMap<>();
+            MockMvcRequestBuilderUtils.writeForm(form, parameters::put);
+
+            assertThat(parameters).containsExactly(
+                    Map.entry("counts[0]", "3"), Map.entry("counts[1]", "1000000"),
+                    Map.entry("timestamps[0]", "1700000000000"),
+                    Map.entry("ratios[0]", "0.5"), Map.entry("ratios[1]", "1.25"),
+                    Map.entry("flags[0]", "true"), Map.entry("flags[1]", "false"),
+                    Map.entry("initials[0]", "J"));
+        }
+
+        @Test
+        void byteArraysAreNotAddedAsParameters() {
+            final AnalyticsForm form = new AnalyticsForm();
+            form.initials = new char[]{'J'};
+            form.bytes = new byte[1_000_000];
+            final Configuration compiledConfig = Configuration.builder().compileForms(true).build();
+
+            final Map<String, String> parameters = new LinkedHashMap<>();
+            MockMvcRequestBuilderUtils.writeForm(form, parameters::put);
+
+            assertThat(parameters).containsExactly(Map.entry("initials[0]", "J"));
+            assertThat(FormFlattener.collectFields(form, compiledConfig)).containsExactlyEntriesOf(parameters);
+        }
+
+        @Test
+        void primitiveListsAreAddedAsIndexedParameters() {
+            final AnalyticsForm form = new AnalyticsForm();
+            form.fastutilCounts = IntArrayList.of(1, 2);
+            form.fastutilTimestamps = LongArrayList.of(3L);
+            form.fastutilRatios = DoubleArrayList.of(0.5);
+            form.eclipseCounts = IntLists.mutable.of(4, 5);
+            form.eclipseTimestamps = LongLists.immutable.of(6L);
+            form.eclipseRatios = DoubleLists.mutable.of(1.5);
+
+            final Map<String, String> parameters = new LinkedHashMap<>();
+            MockMvcRequestBuilderUtils.writeForm(form, parameters::put);
+
+            assertThat(parameters).containsExactly(
+                    Map.entry("fastutilCounts[0]", "1"), Map.entry("fastutilCounts[1]", "2"),
+                    Map.entry("fastutilTimestamps[0]", "3"),
+                    Map.entry("fastutilRatios[0]", "0.5"),
+                    Map.entry("eclipseCounts[0]", "4"), Map.entry("eclipseCounts[1]", "5"),
+                    Map.entry("eclipseTimestamps[0]", "6"),
+                    Map.entry("eclipseRatios[0]", "1.5"));
+        }
+
+        @Test
+        void primitiveSequencesAreBoundByDataBinder() {
+            final AnalyticsForm form = new AnalyticsForm();
+            form.counts = new int[]{3, 4};
+
+            final MockHttpServletRequest request = MockMvcRequestBuilderUtils.postForm(POST_FORM_URL, form).buildRequest(servletContext);
+            final AnalyticsForm boundForm = new AnalyticsForm();
+            final ServletRequestDataBinder binder = new ServletRequestDataBinder(boundForm);
+            binder.initDirectFieldAccess();
+            binder.bind(request);
+
+            assertThat(request.getParameter("counts[1]")).isEqualTo("4");
+            assertThat(boundForm.counts).containsExactly(3, 4);
+        }
+
+        @Test
+        void compiledFormsProduceSameParameters() {
+            final AnalyticsForm form = new AnalyticsForm();
+            form.counts = new int[]{3, 4};
+            form.fastutilCounts = IntArrayList.of(5);
+            final Configuration config = Configuration.builder()
+                    .compileForms(true)
+                    .build();
+
+            final Map<String, String> compiledParameters = new LinkedHashMap<>();
+            final Map<String, String> parameters = new LinkedHashMap<>();
+            MockMvcRequestBuilderUtils.writeForm(form, config, compiledParameters::put);
+            MockMvcRequestBuilderUtils.writeForm(form, parameters::put);
+
+            assertThat(compiledParameters).containsExactlyEntriesOf(parameters).containsKeys("counts[1]", "fastutilCounts[0]");
+        }
+
+        @Test
+        void largePrimitiveSequencesAreLimited() {
+            final AnalyticsForm form = new AnalyticsForm();
+            form.counts = new int[100];
+            Arrays.setAll(form.counts, i -> i);
+            form.fastutilCounts = new IntArrayList(form.counts);
+            final Configuration config = Configuration.builder()
+                    .maxCollectionSize(4, LimitPolicy.SAMPLE)
+                    .parallelThreshold(10)
+                    .build();
+
+            final Map<String, String> parameters = new LinkedHashMap<>();
+            MockMvcRequestBuilderUtils.writeForm(form, config, parameters::put);
+
+            assertThat(parameters).containsExactly(
+                    Map.entry("counts[0]", "0"), Map.entry("counts[25]", "25"),
+                    Map.entry("counts[50]", "50"), Map.entry("counts[75]", "75"),
+                    Map.entry("fastutilCounts[0]", "0"), Map.entry("fastutilCounts[25]", "25"),
+                    Map.entry("fastutilCounts[50]", "50"), Map.entry("fastutilCounts[75]", "75"));
+        }
+    }
+
+    @Nested
+    class NestedCollections {
+
+        @Test
+        void nestedIterablesAndArraysAreAddedWithOneIndexPerLevel() {
+            final GridForm form = new GridForm();
+            form.setGrid(List.of(List.of("a", "b"), List.of("c")));
+            form.setMatrix(new String[][]{{"x"}, {"y", "z"}});
+            form.setCells(new int[][]{{1, 2}, {3}});
+
+            final Map<String, String> parameters = new LinkedHashMap<>();
+            MockMvcRequestBuilderUtils.writeForm(form, parameters::put);
+
+            assertThat(parameters).containsExactly(
+                    Map.entry("grid[0][0]", "a"), Map.entry("grid[0][1]", "b"), Map.entry("grid[1][0]", "c"),
+                    Map.entry("matrix[0][0]", "x"), Map.entry("matrix[1][0]", "y"), Map.entry("matrix[1][1]", "z"),
+                    Map.entry("cells[0][0]", "1"), Map.entry("cells[0][1]", "2"), Map.entry("cells[1][0]", "3"));
+        }
+
+        @Test
+        void nestedMapsAreAddedWithOneKeyPerLevel() {
+            final GridForm form = new GridForm();
+            final Map<String, Map<String, String>> labels = new LinkedHashMap<>();
+            labels.put("en", Map.of("title", "Title"));
+            labels.put("fr", Collections.singletonMap("title", null));
+            form.setLabels(labels);
+            form.setAddressBook(List.of(Map.of("home", TestFixtures.anAddress())));
+
+            final Map<String, String> parameters = new LinkedHashMap<>();
+            MockMvcRequestBuilderUtils.writeForm(form, parameters::put);
+
+            assertThat(parameters).containsExactly(
+                    Map.entry("labels[en][title]", "Title"), Map.entry("labels[fr][title]", ""),
+                    Map.entry("addressBook[0][home].streetNumber", "1"), Map.entry("addressBook[0][home].streetName", "Street"),
+                    Map.entry("addressBook[0][home].postalCode", "5222"), Map.entry("addressBook[0][home].city", "New York"));
+        }
+
+        @Test
+        void nestedCollectionsAreBoundByDataBinder() {
+            final GridForm form = new GridForm();
+            form.setGrid(List.of(List.of("a", "b"), List.of("c")));
+            form.setLabels(Map.of("en", Map.of("title", "Title")));
+
+            final MockHttpServletRequest request = MockMvcRequestBuilderUtils.postForm(POST_FORM_URL, form).buildRequest(servletContext);
+            final GridForm boundForm = new GridForm();
+            new ServletRequestDataBinder(boundForm).bind(request);
+
+            assertThat(boundForm.getGrid()).isEqualTo(form.getGrid());
+            assertThat(boundForm.getLabels()).isEqualTo(form.getLabels());
+        }
+
+        @Test
+        void nestedCollectionsAreLimitedAtEveryLevel() {
+            final GridForm form = new GridForm();
+            form.setGrid(List.of(List.of("a", "b", "c"), List.of("d", "e", "f"), List.of("g", "h", "i")));
+            final Configuration config = Configuration.builder()
+                    .maxCollectionSize(2, LimitPolicy.TRUNCATE)
+                    .build();
+
+            final Map<String, String> parameters = new LinkedHashMap<>();
+            MockMvcRequestBuilderUtils.writeForm(form, config, parameters::put);
+
+            assertThat(parameters).containsOnlyKeys("grid[0][0]", "grid[0][1]", "grid[1][0]", "grid[1][1]");
+        }
+
+        @Test
+        void largeGridsAreFlattenedInParallelInOrder() {
+            final List<List<String>> grid = new ArrayList<>();
+            for (int i = 0; i < 300; i++) {
+                final List<String> row = new ArrayList<>();
+                for (int j = 0; j < 300; j++) {
+                    row.add(i + ":" + j);
+                }
+                grid.add(row);
+            }
+            final GridForm form = new GridForm();
+            form.setGrid(grid);
+            final Configuration config = Configuration.builder()
+                    .parallelThreshold(100)
+                    .build();
+
+            final List<Map.Entry<String, String>> parallelParameters = new ArrayList<>();
+            final List<Map.Entry<String, String>> sequentialParameters = new ArrayList<>();
+            MockMvcRequestBuilderUtils.writeForm(form, config, (name, value) -> parallelParameters.add(Map.entry(name, value)));
+            MockMvcRequestBuilderUtils.writeForm(form, (name, value) -> sequentialParameters.add(Map.entry(name, value)));
+
+            assertThat(parallelParameters)
+                    .hasSize(300 * 300)
+                    .containsExactlyElementsOf(sequentialParameters)
+                    .contains(Map.entry("grid[299][42]", "299:42"));
+        }
+
+        @Test
+        void nestedCollectionContainingItselfIsDetectedAsCycle() {
+            final List<Object> cyclicList = new ArrayList<>();
+            cyclicList.add("a");
+            cyclicList.add(cyclicList);
+            final GridForm form = new GridForm();
+            form.setItems(cyclicList);
+
+            final IllegalStateException exception = assertThrows(IllegalStateException.class,
+                    () -> MockMvcRequestBuilderUtils.writeForm(form, (name, value) -> {
+                    }));
+            assertThat(exception).hasMessageContaining("items[1]");
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class GridForm {
+
+        private List<List<String>> grid;
+        private String[][] matrix;
+        private int[][] cells;
+        private Map<String, Map<String, String>> labels;
+        private List<Map<String, AddUserForm.Address>> addressBook;
+        private List<Object> items;
+    }
+
+    static class AnalyticsForm {
+
+        private int[] counts;
+        private long[] timestamps;
+        private double[] ratios;
+        private boolean[] flags;
+        private char[] initials;
+        private byte[] bytes;
+        private IntList fastutilCounts;
+        private LongList fastutilTimestamps;
+        private DoubleList fastutilRatios;
+        private org.eclipse.collections.api.list.primitive.IntList eclipseCounts;
+        private org.eclipse.collections.api.list.primitive.LongList eclipseTimestamps;
+        private org.eclipse.collections.api.list.primitive.DoubleList eclipseRatios;
+    }
+
+    @Nested
+    class MultipartForms {
+
+        @Test
+        void addsFileLikeFieldsAsPartsAndOtherFieldsAsParameters(@TempDir Path tempDir) throws IOException {
+            final Path report = Files.writeString(tempDir.resolve("report.txt"), "report");
+            final UploadForm form = new UploadForm("Holidays", new MockMultipartFile("file", "cv.pdf", "application/pdf", "cv".getBytes(StandardCharsets.UTF_8)),
+                    new ByteArrayResource("document".getBytes(StandardCharsets.UTF_8)), report, "avatar".getBytes(StandardCharsets.UTF_8),
+                    List.of(new ByteArrayResource("first".getBytes(StandardCharsets.UTF_8)), new FileSystemResource(report)));
+
+            final MockMultipartHttpServletRequest request = buildRequest(MockMvcRequestBuilderUtils.multipartForm(POST_FORM_URL, form));
+
+            assertThat(request.getMethod()).isEqualTo(HttpMethod.POST.name());
+            assertThat(request.getParameterMap()).containsOnlyKeys("title");
+            assertThat(request.getFileMap()).containsOnlyKeys("attachment", "document", "report", "avatar", "images[0]", "images[1]");
+            assertThat(request.getFile("attachment").getOriginalFilename()).isEqualTo("cv.pdf");
+            assertThat(request.getFile("attachment").getContentType()).isEqualTo("application/pdf");
+            assertThat(request.getFile("attachment").getBytes()).asString(StandardCharsets.UTF_8).isEqualTo("cv");
+            assertThat(request.getFile("document").getBytes()).asString(StandardCharsets.UTF_8).isEqualTo("document");
+            assertThat(request.getFile("report").getOriginalFilename()).isEqualTo("report.txt");
+            assertThat(request.getFile("report").getContentType()).isEqualTo("text/plain");
+            assertThat(request.getFile("report").getSize()).isEqualTo(6);
+            assertThat(request.getFile("avatar").getBytes()).isSameAs(form.avatar());
+            assertThat(request.getFile("images[1]").getInputStream()).hasContent("report");
+        }
+
+        @Test
+        void streamsResourcesWhenRead(@TempDir Path tempDir) throws IOException {
+            final AtomicInteger openedStreams = new AtomicInteger();
+            final Resource document = new ByteArrayResource("document".getBytes(StandardCharsets.UTF_8)) {
+                @Override
+                public InputStream getInputStream() throws IOException {
+                    openedStreams.incrementAndGet();
+                    return super.getInputStream();
+                }
+            };
+            final UploadForm form = new UploadForm(null, null, document, null, null, null);
+
+            final MultipartFile file = buildRequest(MockMvcRequestBuilderUtils.multipartForm(POST_FORM_URL, form)).getFile("document");
+
+            assertThat(openedStreams).hasValue(0);
+            final Path copy = tempDir.resolve("copy.txt");
+            file.transferTo(copy);
+            assertThat(copy).hasContent("document");
+            assertThat(openedStreams).hasValue(1);
+        }
+
+        @Test
+        void nullFormAddsNothing() {
+            final MockMultipartHttpServletRequest request = buildRequest(MockMvcRequestBuilderUtils.multipartForm(POST_FORM_URL, null));
+
+            assertThat(request.getParameterMap()).isEmpty();
+            assertThat(request.getFileMap()).isEmpty();
+        }
+
+        // Post processors are applied by MockMvc
+        private MockMultipartHttpServletRequest buildRequest(MockMultipartHttpServletRequestBuilder builder) {
+            return (MockMultipartHttpServletRequest) builder.postProcessRequest(builder.buildRequest(servletContext));
+        }
+    }
+
+    record UploadForm(String title, MultipartFile attachment, Resource document, Path report, byte[] avatar, List<Resource> images) {
+    }
+
+    @Nested
+    class FlatteningMetricsTests {
+
+        private final List<FlatteningMetrics> reportedMetrics = new ArrayList<>();
+
+        @Test
+        void reportsMetricsOfEachFlattenedForm() {
+            final Configuration config = Configuration.builder()
+                    .withFlatteningListener(reportedMetrics::add)
+                    .build();
+
+            final MockHttpServletRequest request = MockMvcRequestBuilderUtils.postForm(POST_FORM_URL, TestFixtures.aCompleteAddUserForm(), config)
+                    .buildRequest(servletContext);
+
+            assertThat(reportedMetrics).singleElement().satisfies(metrics -> {
+                assertThat(metrics.formClass()).isEqualTo(AddUserForm.class);
+                assertThat(metrics.parametersEmitted()).isEqualTo(request.getParameterMap().size()).isEqualTo(36);
+                assertThat(metrics.formatterCalls()).isEqualTo(30);
+                assertThat(metrics.reflectiveReads()).isGreaterThanOrEqualTo(metrics.formatterCalls());
+                assertThat(metrics.nodesVisited()).isGreaterThan(metrics.reflectiveReads());
+                assertThat(metrics.totalNanos()).isPositive()
+                        .isEqualTo(metrics.discoveryNanos() + metrics.formattingNanos() + metrics.applicationNanos());
+            });
+        }
+
+        @Test
+        void compiledFormsAreNotReadReflectively() {
+            final Configuration config = Configuration.builder()
+                    .compileForms(true)
+                    .withFlatteningListener(reportedMetrics::add)
+                    .build();
+            final AddUserForm.Address address = TestFixtures.anAddress();
+
+            MockMvcRequestBuilderUtils.prepare(AddUserForm.Address.class, config).apply(address);
+
+            assertThat(reportedMetrics).singleElement().satisfies(metrics -> {
+                assertThat(metrics.parametersEmitted()).isEqualTo(4);
+                assertThat(metrics.reflectiveReads()).isZero();
+                assertThat(metrics.formatterCalls()).isEqualTo(4);
+            });
+        }
+
+        @Test
+        void valuesFormattedToNullAreRecorded() {
+            final PropertyEditorSupport nullPropertyEditor = new PropertyEditorSupport() {
+                @Override
+                public String getAsText() {
+                    return null;
+                }
+            };
+            final Configuration config = Configuration.builder()
+                    .withPropertyEditor(nullPropertyEditor, BigInteger.class)
+                    .withFlatteningListener(reportedMetrics::add)
+                    .build();
+            final Map<String, String> parameters = new LinkedHashMap<>();
+
+            MockMvcRequestBuilderUtils.writeForm(AddUserForm.builder().identificationNumberBigInt(BigInteger.TEN).build(),
+                    config, parameters::put);
+
+            assertThat(parameters).containsEntry("identificationNumberBigInt", null);
+            assertThat(reportedMetrics).singleElement()
+                    .satisfies(metrics -> assertThat(metrics.parametersEmitted()).isEqualTo(parameters.size()));
+        }
+
+        @Test
+        void parallelChunksAreCounted() {
+            final Configuration config = Configuration.builder()
+                    .parallelThreshold(100)
+                    .withFlatteningListener(reportedMetrics::add)
+                    .withFlatteningListener(reportedMetrics::add)
+                    .build();
+            final List<String> usernames = new ArrayList<>();
+            for (int i = 0; i < 1_000; i++) {
+                usernames.add("user" + i);
+            }
+
+            MockMvcRequestBuilderUtils.writeForm(AddUserForm.builder().usernames(usernames).build(), config, (name, value) -> {
+            });
+
+            assertThat(reportedMetrics).hasSize(2).allSatisfy(metrics -> {
+                assertThat(metrics.parametersEmitted()).isEqualTo(1_000);
+                assertThat(metrics.nodesVisited()).isEqualTo(1 + 1 + 1_000);
+            });
+        }
+    }
+
+    @Nested
+    class QueryForms {
+
+        @Test
+        void addsParametersToQueryString() {
+            final AddUserForm form = TestFixtures.aCompleteAddUserForm();
+            form.setName("Doe & Sons = 100% Ünïcode");
+
+            final MockHttpServletRequest request = buildRequest(MockMvcRequestBuilderUtils.getForm(POST_FORM_URL, form));
+
+            final Map<String, String> parameters = FormFlattener.collectFields(form, Configuration.DEFAULT);
+            assertThat(request.getMethod()).isEqualTo(HttpMethod.GET.name());
+            assertThat(request.getRequestURI()).isEqualTo(POST_FORM_URL);
+            assertThat(request.getQueryString()).startsWith("firstName=John&name=Doe%20%26%20Sons%20%3D%20100%25%20%C3%9Cn%C3%AFcode&");
+            assertThat(request.getParameterMap()).hasSameSizeAs(parameters);
+            parameters.forEach((name, value) -> assertThat(request.getParameterValues(name)).containsExactly(value));
+        }
+
+        @Test
+        void appendsParametersToExistingQuery() {
+            final AddUserForm form = AddUserForm.builder().firstName("John").name("Doe").build();
+
+            final MockHttpServletRequest request = buildRequest(MockMvcRequestBuilderUtils.deleteForm("/users/42?force=true#top", form));
+
+            assertThat(request.getMethod()).isEqualTo(HttpMethod.DELETE.name());
+            assertThat(request.getRequestURI()).isEqualTo("/users/42");
+            assertThat(request.getQueryString()).isEqualTo("force=true&firstName=John&name=Doe");
+            assertThat(request.getParameter("force")).isEqualTo("true");
+            assertThat(request.getParameter("name")).isEqualTo("Doe");
+        }
+
+        @Test
+        void largeListsDoNotPreventCachingNamesOfLaterForms() {
+            final Configuration config = Configuration.builder().build();
+            final List<String> usernames = new ArrayList<>();
+            for (int i = 0; i < 10_000; i++) {
+                usernames.add("user" + i);
+            }
+            buildRequest(MockMvcRequestBuilderUtils.getForm(POST_FORM_URL, AddUserForm.builder().usernames(usernames).build(), config));
+
+            final MockHttpServletRequest request = buildRequest(MockMvcRequestBuilderUtils.getForm(POST_FORM_URL,
+                    AddUserForm.builder().firstName("John").usernames(List.of("jdoe")).build(), config));
+
+            assertThat(request.getQueryString()).isEqualTo("firstName=John&usernames%5B0%5D=jdoe");
+            assertThat(config.queryEncoder().encodedName("firstName")).isSameAs(config.queryEncoder().encodedName("firstName"));
+        }
+
+        @Test
+        void nullFormKeepsUrl() {
+            final MockHttpServletRequest request = buildRequest(MockMvcRequestBuilderUtils.patchForm(POST_FORM_URL, null));
+
+            assertThat(request.getMethod()).isEqualTo(HttpMethod.PATCH.name());
+            assertThat(request.getQueryString()).isNull();
+            assertThat(request.getParameterMap()).isEmpty();
+        }
+
+        // Post processors are applied by MockMvc
+        private MockHttpServletRequest buildRequest(MockHttpServletRequestBuilder builder) {
+            return builder.postProcessRequest(builder.buildRequest(servletContext));
+        }
+    }
+
+    @Nested
+    class EncodedBodies {
+
+        private final Configuration encodingConfig = Configuration.builder()
+                .encodeBody(true)
+                .build();
+
+        @Test
+        void writesParametersToUrlEncodedBody() {
+            final AddUserForm form = TestFixtures.aCompleteAddUserForm();
+            form.setName("Doe & Sons = Ünïcode 😀");
+
+            final MockHttpServletRequest request = MockMvcRequestBuilderUtils.postForm(POST_FORM_URL, form, encodingConfig)
+                    .buildRequest(servletContext);
+
+            final Map<String, String> parameters = FormFlattener.collectFields(form, encodingConfig);
+            assertThat(request.getContentAsByteArray()).asString(StandardCharsets.US_ASCII).isEqualTo(urlEncode(parameters));
+            assertThat(request.getCharacterEncoding()).isEqualTo(StandardCharsets.UTF_8.name());
+            parameters.forEach((name, value) -> assertThat(request.getParameterValues(name)).containsExactly(value));
+        }
+
+        @Test
+        void writesBodyOfBatchesAndPostProcessors() {
+            final AddUserForm form = TestFixtures.aCompleteAddUserForm();
+            final String expectedBody = urlEncode(FormFlattener.collectFields(form, encodingConfig));
+
+            final MockHttpServletRequest batchRequest = MockMvcRequestBuilderUtils.postForms(POST_FORM_URL, Stream.of(form), encodingConfig)
+                    .findFirst().orElseThrow()
+                    .buildRequest(servletContext);
+            final MockHttpServletRequest processedRequest = MockMvcRequestBuilderUtils.form(form, encodingConfig)
+                    .postProcessRequest(new MockHttpServletRequest());
+
+            assertThat(batchRequest.getContentAsByteArray()).asString(StandardCharsets.US_ASCII).isEqualTo(expectedBody);
+            assertThat(processedRequest.getContentAsByteArray()).asString(StandardCharsets.US_ASCII).isEqualTo(expectedBody);
+            assertThat(processedRequest.getContentType()).startsWith("application/x-www-form-urlencoded");
+            assertThat(processedRequest.getParameter("firstName")).isEqualTo("John");
+        }
+
+        @Test
+        void leavesContentUnsetByDefault() {
+            final MockHttpServletRequest request = MockMvcRequestBuilderUtils.postForm(POST_FORM_URL, TestFixtures.aCompleteAddUserForm())
+                    .buildRequest(servletContext);
+
+            assertThat(request.getContentAsByteArray()).isNull();
+        }
+
+        private static String urlEncode(Map<String, String> parameters) {
+            final StringBuilder body = new StringBuilder();
+            parameters.forEach((name, value) -> body.append(body.length() > 0 ? "&" : "")
+                    .append(URLEncoder.encode(name, StandardCharsets.UTF_8))
+                    .append('=')
+                    .append(URLEncoder.encode(value, StandardCharsets.UTF_8)));
+            return body.toString();
+        }
+    }
+
+    @Nested
+    class CompiledForms {
+
+        private final Configuration compiledConfig = Configuration.builder()
+                .includeFinal(true)
+                .compileForms(true)
+                .build();
+
+        @Test
+        void compilesFormClass() {
+            assertThat(compiledConfig.compiledFormFor(AddUserForm.class)).isPresent();
+            assertThat(compiledConfig.compiledFormFor(AddUserForm.class)).isSameAs(compiledConfig.compiledFormFor(AddUserForm.class));
+        }
+
+        @Test
+        void doesNotCompileUnsupportedRootClasses() {
+            assertThat(compiledConfig.compiledFormFor(String.class)).isEmpty();
+            assertThat(compiledConfig.compiledFormFor(HashMap.class)).isEmpty();
+        }
+
+        @Test
+        void compiledFormsDoNotRetainTheirConfiguration() throws InterruptedException {
+            final WeakReference<Configuration> config = compileAndDropConfiguration();
+
+            for (int i = 0; i < 20 && config.get() != null; i++) {
+                System.gc();
+                Thread.sleep(50);
+            }
+
+            assertThat(config.get()).isNull();
+        }
+
+        private WeakReference<Configuration> compileAndDropConfiguration() {
+            final Configuration config = Configuration.builder()
+                    .compileForms(true)
+                    .withPropertyEditor(new CustomLocalDatePropertyEditor("dd/MM/yyyy"), LocalDate.class)
+                    .build();
+            assertThat(config.compiledFormFor(AddUserForm.class)).isPresent();
+            MockMvcRequestBuilderUtils.postForm(POST_FORM_URL, TestFixtures.aCompleteAddUserForm(), config).buildRequest(servletContext);
+            return new WeakReference<>(config);
+        }
+
+        @Test
+        void producesSameParametersAsReflectivePath() {
+            final Map<String, String> metadatas = new HashMap<>();
+            metadatas.put("firstName", "John");
+            metadatas.put("gender", null);
+            final AddUserForm addUserForm = TestFixtures.aCompleteAddUserForm();
+            addUserForm.setMetadatas(metadatas);
+
+            final MockHttpServletRequest compiledRequest =
+                    MockMvcRequestBuilderUtils.postForm(POST_FORM_URL, addUserForm, compiledConfig).buildRequest(servletContext);
+            final MockHttpServletRequest reflectiveRequest =
+                    MockMvcRequestBuilderUtils.postForm(POST_FORM_URL, addUserForm).buildRequest(servletContext);
+
+            assertThat(compiledRequest.getParameterMap())
+                    .containsExactlyInAnyOrderEntriesOf(reflectiveRequest.getParameterMap())
+                    .containsEntry("metadatas[gender]", new String[]{""})
+                    .containsEntry("currentAddress.linkedAddress.city", new String[]{"Linked New York"});
+        }
+
+        @Test
+        void nestedObjectOfSubclassFallsBackToReflectivePath() {
+            final AddUserForm addUserForm = AddUserForm.builder()
+                    .currentAddress(new AddUserForm.Address(1, "Street", 5222, "New York") {
+                        private final String country = "USA";
+                    })
+                    .build();
+
+            final MockHttpServletRequest request =
+                    MockMvcRequestBuilderUtils.postForm(POST_FORM_URL, addUserForm, compiledConfig).buildRequest(servletContext);
+
+            assertThat(request.getParameter("currentAddress.city")).isEqualTo("New York");
+            assertThat(request.getParameter("currentAddress.country")).isEqualTo("USA");
+        }
+
+        @Test
+        void usesRegisteredPropertyEditors() {
+            final Configuration config = Configuration.builder()
+                    .compileForms(true)
+                    .withPropertyEditor(new CustomLocalDatePropertyEditor("dd/MM/yyyy"), LocalDate.class)
+                    .build();
+            final AddUserForm addUserForm = AddUserForm.builder()
+                    .birthDate(LocalDate.of(2016, 8, 29))
+                    .build();
+
+            final MockHttpServletRequest request =
+                    MockMvcRequestBuilderUtils.postForm(POST_FORM_URL, addUserForm, config).buildRequest(servletContext);
+
+            assertThat(request.getParameter("birthDate")).isEqualTo("29/08/2016");
+        }
+
+        @Test
+        void usesConversionServiceWithFieldAnnotations() {
+            final Configuration config = Configuration.builder()
+                    .compileForms(true)
+                    .withConversionService(new DefaultFormattingConversionService())
+                    .build();
+            final AddUserForm addUserForm = AddUserForm.builder()
+                    .birthDate(LocalDate.of(2016, 8, 29))
+                    .build();
+
+            final MockHttpServletRequest request =
+                    MockMvcRequestBuilderUtils.postForm(POST_FORM_URL, addUserForm, config).buildRequest(servletContext);
+
+            assertThat(request.getParameter("birthDate")).isEqualTo("29.08.2016");
+        }
+    }
+
     @Nested
     class ConfigurationTests {
 
@@ -448,6 +1720,24 @@ public class MockMvcRequestBuilderUtilsTests {
             assertThat(request.getParameter("birthDate")).isEqualTo("textDateValue");
         }
 
+        @Test
+        void scalarTypeIsAddedAsSingleParameter() {
+            final AddUserForm addUserForm = AddUserForm.builder()
+                    .currentAddress(TestFixtures.anAddress())
+                    .formerAddresses(new AddUserForm.Address[]{TestFixtures.anAddress()})
+                    .build();
+            final Configuration config = Configuration.builder()
+                    .withScalarType(AddUserForm.Address.class)
+                    .build();
+
+            final MockHttpServletRequest request =
+                    MockMvcRequestBuilderUtils.postForm(POST_FORM_URL, addUserForm, config).buildRequest(servletContext);
+
+            assertThat(request.getParameter("currentAddress")).isEqualTo(TestFixtures.anAddress().toString());
+            assertThat(request.getParameter("formerAddresses[0]")).isEqualTo(TestFixtures.anAddress().toString());
+            assertThat(request.getParameter("currentAddress.city")).isNull();
+        }
+
         @Nested
         class DefaultConfiguration {
 
@@ -0,0 +1,81 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.math.BigDecimal;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScalarFormatTests {
+
+    static Stream<Object> scalarValues() {
+        return Stream.of(true, false, 'a', 'é', (byte) -5, (short) 300, 0, 42, -128, 1023, 1024, -129, Integer.MIN_VALUE,
+                7L, Long.MAX_VALUE, 1.5f, Float.NaN, 0.1d, -0.0d, "John", AddUserForm.Gender.FEMALE, Direction.UP);
+    }
+
+    @ParameterizedTest
+    @MethodSource("scalarValues")
+    void formatsValuesLikeStringValueOf(Object value) {
+        // Fields are declared with the enum class, not with the class of constants having a body
+        final Class<?> type = value instanceof Enum<?> constant ? constant.getDeclaringClass() : value.getClass();
+
+        assertThat(ScalarFormat.of(type).orElseThrow().format(value)).isEqualTo(String.valueOf(value));
+    }
+
+    @Test
+    void formatsPrimitiveFieldsWithoutBoxing() throws NoSuchFieldException {
+        final FieldAccessor accessor = FieldAccessor.of(AddUserForm.Address.class.getDeclaredField("postalCode"));
+
+        assertThat(ScalarFormat.of(int.class)).contains(ScalarFormat.INT);
+        assertThat(ScalarFormat.INT.read(accessor, TestFixtures.anAddress())).isEqualTo("5222");
+    }
+
+    @Test
+    void formatsWrapperFieldsAsBoxedValues() throws NoSuchFieldException {
+        final FieldAccessor accessor = FieldAccessor.of(Counter.class.getDeclaredField("count"));
+
+        assertThat(ScalarFormat.of(Long.class)).contains(ScalarFormat.BOXED);
+        assertThat(ScalarFormat.BOXED.read(accessor, new Counter(7L))).isEqualTo("7");
+        assertThat(ScalarFormat.BOXED.read(accessor, new Counter(null))).isNull();
+    }
+
+    @Test
+    void readsNullValuesAsNull() throws NoSuchFieldException {
+        final FieldAccessor accessor = FieldAccessor.of(AddUserForm.class.getDeclaredField("firstName"));
+
+        assertThat(ScalarFormat.STRING.read(accessor, new AddUserForm())).isNull();
+    }
+
+    @Test
+    void reusesStringsOfSmallIntegers() {
+        assertThat(ScalarFormat.formatInt(42)).isSameAs(ScalarFormat.formatInt(42));
+        assertThat(ScalarFormat.formatLong(42L)).isSameAs(ScalarFormat.formatInt(42));
+    }
+
+    @Test
+    void otherTypesHaveNoScalarFormat() {
+        assertThat(ScalarFormat.of(BigDecimal.class)).isEmpty();
+        assertThat(ScalarFormat.of(Object.class)).isEmpty();
+        assertThat(ScalarFormat.of(AddUserForm.class)).isEmpty();
+    }
+
+    static class Counter {
+        private final Long count;
+
+        Counter(Long count) {
+            this.count = count;
+        }
+    }
+
+    enum Direction {
+        UP {
+            @Override
+            public String toString() {
+                return "up";
+            }
+        }
+    }
+}
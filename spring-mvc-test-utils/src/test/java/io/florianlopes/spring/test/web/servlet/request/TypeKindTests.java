@@ -0,0 +1,58 @@
+package io.florianlopes.spring.test.web.servlet.request;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TypeKindTests {
+
+    @Test
+    void classifiesScalarTypes() {
+        assertThat(TypeKind.of(int.class)).isEqualTo(TypeKind.SCALAR);
+        assertThat(TypeKind.of(Integer.class)).isEqualTo(TypeKind.SCALAR);
+        assertThat(TypeKind.of(String.class)).isEqualTo(TypeKind.SCALAR);
+        assertThat(TypeKind.of(Object.class)).isEqualTo(TypeKind.SCALAR);
+        assertThat(TypeKind.of(CharSequence.class)).isEqualTo(TypeKind.SCALAR);
+        assertThat(TypeKind.of(AddUserForm.Gender.class)).isEqualTo(TypeKind.ENUM);
+        assertThat(TypeKind.of(LocalDate.class)).isEqualTo(TypeKind.TEMPORAL);
+        assertThat(TypeKind.of(Date.class)).isEqualTo(TypeKind.TEMPORAL);
+        assertThat(TypeKind.of(BigDecimal.class)).isEqualTo(TypeKind.BIG_NUMBER);
+        assertThat(TypeKind.of(BigInteger.class)).isEqualTo(TypeKind.BIG_NUMBER);
+        assertThat(TypeKind.of(Number.class)).isEqualTo(TypeKind.BIG_NUMBER);
+    }
+
+    @Test
+    void classifiesContainerAndBeanTypes() {
+        assertThat(TypeKind.of(String[].class)).isEqualTo(TypeKind.ARRAY);
+        assertThat(TypeKind.of(int[].class)).isEqualTo(TypeKind.ARRAY);
+        assertThat(TypeKind.of(byte[].class)).isEqualTo(TypeKind.SCALAR);
+        assertThat(TypeKind.of(List.class)).isEqualTo(TypeKind.ITERABLE);
+        assertThat(TypeKind.of(ArrayList.class)).isEqualTo(TypeKind.ITERABLE);
+        assertThat(TypeKind.of(Map.class)).isEqualTo(TypeKind.MAP);
+        assertThat(TypeKind.of(HashMap.class)).isEqualTo(TypeKind.MAP);
+        assertThat(TypeKind.of(AddUserForm.class)).isEqualTo(TypeKind.BEAN);
+    }
+
+    @Test
+    void classifiesPrimitiveListsAsIterables() {
+        assertThat(TypeKind.of(it.unimi.dsi.fastutil.ints.IntList.class)).isEqualTo(TypeKind.ITERABLE);
+        assertThat(TypeKind.of(org.eclipse.collections.api.list.primitive.IntList.class)).isEqualTo(TypeKind.ITERABLE);
+        assertThat(TypeKind.of(org.eclipse.collections.impl.list.mutable.primitive.LongArrayList.class)).isEqualTo(TypeKind.ITERABLE);
+    }
+
+    @Test
+    void classifiesUserScalarTypesAndSubtypes() {
+        assertThat(TypeKind.of(AddUserForm.Address.class, List.of(AddUserForm.Address.class))).isEqualTo(TypeKind.SCALAR);
+        assertThat(TypeKind.of(ArrayList.class, List.of(List.class))).isEqualTo(TypeKind.SCALAR);
+        assertThat(TypeKind.of(AddUserForm.class, List.of(AddUserForm.Address.class))).isEqualTo(TypeKind.BEAN);
+    }
+}